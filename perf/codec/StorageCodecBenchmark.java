@@ -0,0 +1,108 @@
+import org.yaroslaavl.cvservice.storage.AesGcmStorageCodec;
+import org.yaroslaavl.cvservice.storage.PdfStreamCompressionCodec;
+import org.yaroslaavl.cvservice.storage.StorageCodec;
+import org.yaroslaavl.cvservice.storage.StorageCodecChain;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Single-threaded throughput (MB/s per core) and size savings of the storage codecs on a PDF corpus.
+ * Compiled with the test sources (see build-helper-maven-plugin in the pom), so it follows codec API changes.
+ *
+ *   mvn -q compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/classes:$(cat target/cp.txt)" perf/codec/StorageCodecBenchmark.java <corpus-dir> [iterations]
+ */
+public class StorageCodecBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: StorageCodecBenchmark <corpus-dir> [iterations]");
+            System.exit(1);
+        }
+
+        List<byte[]> corpus = loadCorpus(Path.of(args[0]));
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long corpusBytes = corpus.stream().mapToLong(pdf -> pdf.length).sum();
+        System.out.printf("corpus: %d files, %.2f MB, %d iterations%n", corpus.size(), mb(corpusBytes), iterations);
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        StorageCodec compression = new PdfStreamCompressionCodec(true);
+        StorageCodec encryption = new AesGcmStorageCodec(Base64.getEncoder().encodeToString(key), "k1", List.of(), "k1", true);
+
+        report("pdf-flate encode", corpus, iterations, compression);
+        report("aes-gcm encode", corpus, iterations, encryption);
+        report("pdf-flate+aes-gcm encode", corpus, iterations, new StorageCodecChain(List.of(compression, encryption)));
+
+        List<byte[]> encrypted = new ArrayList<>();
+        for (byte[] pdf : corpus) {
+            encrypted.add(encryption.encode(new ByteArrayInputStream(pdf)).readAllBytes());
+        }
+        measure("aes-gcm decode", encrypted, iterations, content -> encryption.decode(content, "k1"));
+    }
+
+    private static void report(String name, List<byte[]> corpus, int iterations, StorageCodec codec) throws IOException {
+        measure(name, corpus, iterations, codec::encode);
+    }
+
+    private static void report(String name, List<byte[]> corpus, int iterations, StorageCodecChain chain) throws IOException {
+        measure(name, corpus, iterations, chain::encode);
+    }
+
+    private static void measure(String name, List<byte[]> inputs, int iterations, Transform transform) throws IOException {
+        long inputBytes = 0;
+        long outputBytes = 0;
+
+        // warm-up pass, also used for the size figures
+        for (byte[] input : inputs) {
+            inputBytes += input.length;
+            outputBytes += transform.apply(new ByteArrayInputStream(input)).readAllBytes().length;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (byte[] input : inputs) {
+                transform.apply(new ByteArrayInputStream(input)).readAllBytes();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%-26s %8.1f MB/s  %8.2f MB -> %8.2f MB  (%+.1f%%)%n",
+                name,
+                mb(inputBytes * iterations) / seconds,
+                mb(inputBytes),
+                mb(outputBytes),
+                100.0 * (outputBytes - inputBytes) / inputBytes);
+    }
+
+    private static List<byte[]> loadCorpus(Path dir) throws IOException {
+        List<byte[]> corpus = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.filter(path -> path.toString().toLowerCase().endsWith(".pdf")).toList()) {
+                corpus.add(Files.readAllBytes(file));
+            }
+        }
+        if (corpus.isEmpty()) {
+            throw new IllegalArgumentException("No PDF files found in " + dir);
+        }
+        return corpus;
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    @FunctionalInterface
+    private interface Transform {
+        InputStream apply(InputStream content) throws IOException;
+    }
+}
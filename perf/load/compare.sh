@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Runs cv-api.js against the servlet and the reactive deployment with identical load and
+# prints throughput and latency side by side.
+#
+#   SERVLET_URL=http://host-a:8080 REACTIVE_URL=http://host-b:8080 ./compare.sh [extra k6 -e args]
+set -euo pipefail
+
+: "${SERVLET_URL:?SERVLET_URL is required}"
+: "${REACTIVE_URL:?REACTIVE_URL is required}"
+
+DIR="$(cd "$(dirname "$0")" && pwd)"
+OUT="${OUT:-$DIR/results}"
+mkdir -p "$OUT"
+
+for stack in servlet reactive; do
+    url_var="$(echo "$stack" | tr '[:lower:]' '[:upper:]')_URL"
+    # A failed checks threshold still leaves the summary behind; report it instead of aborting.
+    k6 run --quiet -e BASE_URL="${!url_var}" "$@" \
+        --summary-export "$OUT/$stack.json" "$DIR/cv-api.js" \
+        || echo "$stack: checks below threshold, results include error responses" >&2
+done
+
+printf '%-10s %12s %10s %10s %10s %10s\n' stack req/s p50_ms p95_ms p99_ms failed
+for stack in servlet reactive; do
+    jq -r --arg s "$stack" '[$s,
+        (.metrics.http_reqs.rate | floor),
+        .metrics.http_req_duration["p(50)"],
+        .metrics.http_req_duration["p(95)"],
+        .metrics.http_req_duration["p(99)"],
+        .metrics.http_req_failed.value] | @tsv' "$OUT/$stack.json" \
+        | awk '{ printf "%-10s %12s %10.1f %10.1f %10.1f %9.2f%%\n", $1, $2, $3, $4, $5, $6 * 100 }'
+done
@@ -0,0 +1,79 @@
+// k6 load profile for the /api/v1/cv routes. Run the same script against a servlet
+// instance and a reactive instance (SPRING_PROFILES_ACTIVE=reactive), see compare.sh.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e CANDIDATE_TOKEN=... -e SERVICE_TOKEN=... \
+//          -e CV_ID=... -e CV_FILE=./sample.pdf -e UPLOADER_TOKENS=t1,t2,... cv-api.js
+//
+// Every upload VU owns one token from UPLOADER_TOKENS and alternates upload and remove of its
+// non-main CV, so the candidate never reaches cv.max_elements and the happy path is measured.
+// The uploader candidates must be approved and must not have a non-main CV when the run starts.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CANDIDATE_TOKEN = __ENV.CANDIDATE_TOKEN;
+const SERVICE_TOKEN = __ENV.SERVICE_TOKEN;
+const CV_ID = __ENV.CV_ID;
+const CV_FILE = __ENV.CV_FILE ? open(__ENV.CV_FILE, 'b') : null;
+const UPLOADER_TOKENS = (__ENV.UPLOADER_TOKENS || '').split(',').filter((token) => token.length > 0);
+const VUS = parseInt(__ENV.VUS || '50');
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-vus',
+            exec: 'reads',
+            vus: VUS,
+            duration: DURATION,
+        },
+        uploads: {
+            executor: 'constant-arrival-rate',
+            exec: 'uploads',
+            rate: parseInt(__ENV.UPLOAD_RATE || '5'),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.max(UPLOADER_TOKENS.length, 1),
+            maxVUs: Math.max(UPLOADER_TOKENS.length, 1),
+        },
+    },
+    thresholds: {
+        checks: ['rate>0.99'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function auth(token) {
+    return { headers: { Authorization: `Bearer ${token}` } };
+}
+
+export function reads() {
+    const info = http.get(`${BASE_URL}/api/v1/cv/info`, Object.assign(auth(CANDIDATE_TOKEN), { tags: { route: 'info' } }));
+    check(info, { 'info 200': (r) => r.status === 200 });
+
+    if (CV_ID) {
+        const recruiter = http.get(`${BASE_URL}/api/v1/cv/${CV_ID}/recruiter`,
+            Object.assign(auth(SERVICE_TOKEN), { tags: { route: 'recruiter' } }));
+        check(recruiter, { 'recruiter 200': (r) => r.status === 200 });
+    }
+}
+
+export function uploads() {
+    if (!CV_FILE || UPLOADER_TOKENS.length === 0) {
+        return;
+    }
+
+    // One token per VU, so a candidate never has two uploads in flight.
+    const token = UPLOADER_TOKENS[(__VU - 1) % UPLOADER_TOKENS.length];
+    const body = {
+        cv: http.file(CV_FILE, 'load-test.pdf', 'application/pdf'),
+        isMain: 'false',
+    };
+    const upload = http.post(`${BASE_URL}/api/v1/cv/upload`, body,
+        Object.assign(auth(token), { tags: { route: 'upload' } }));
+    check(upload, { 'upload 204': (r) => r.status === 204 });
+
+    const remove = http.del(`${BASE_URL}/api/v1/cv/false`, null,
+        Object.assign(auth(token), { tags: { route: 'remove' } }));
+    check(remove, { 'remove 204': (r) => r.status === 204 });
+}
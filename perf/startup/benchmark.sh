@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# Measures cold-start time and resident memory of cv-service and fails when they exceed the
+# given budgets, so startup regressions show up in CI.
+#
+#   JAR=target/cv-service-0.0.1-SNAPSHOT.jar ./perf/startup/benchmark.sh
+#   JAR=target/cds/cv-service-0.0.1-SNAPSHOT.jar \
+#     JAVA_OPTS="-XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true" ./perf/startup/benchmark.sh
+#
+# Environment:
+#   JAR             application jar to start (required)
+#   JAVA_OPTS       extra JVM options, e.g. the CDS archive and AOT flag
+#   APP_ARGS        application arguments (Consul host, datasource, ...)
+#   RUNS            number of starts, median is reported (default 5)
+#   TIMEOUT_S       max seconds to wait for a single start (default 120)
+#   MAX_STARTUP_MS  fail if median time to "Started" exceeds this (optional)
+#   MAX_RSS_MB      fail if median RSS after startup exceeds this (optional)
+set -euo pipefail
+
+: "${JAR:?JAR is required}"
+RUNS="${RUNS:-5}"
+TIMEOUT_S="${TIMEOUT_S:-120}"
+JAVA_OPTS="${JAVA_OPTS:-}"
+APP_ARGS="${APP_ARGS:-}"
+
+LOG="$(mktemp)"
+trap 'rm -f "$LOG"' EXIT
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+startups=()
+rss=()
+for run in $(seq 1 "$RUNS"); do
+    start_ns=$(date +%s%N)
+    # shellcheck disable=SC2086
+    java $JAVA_OPTS -jar "$JAR" $APP_ARGS > "$LOG" 2>&1 &
+    pid=$!
+
+    started=""
+    deadline=$(( $(date +%s) + TIMEOUT_S ))
+    while [ "$(date +%s)" -lt "$deadline" ]; do
+        if grep -q "Started CvServiceApplication" "$LOG"; then
+            started=$(date +%s%N)
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            break
+        fi
+        sleep 0.05
+    done
+
+    if [ -z "$started" ]; then
+        kill "$pid" 2>/dev/null || true
+        echo "run $run: application did not start, last log lines:" >&2
+        tail -n 30 "$LOG" >&2
+        exit 1
+    fi
+
+    startup_ms=$(( (started - start_ns) / 1000000 ))
+    rss_kb=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    echo "run $run: startup ${startup_ms} ms, rss $(( rss_kb / 1024 )) MB"
+    startups+=("$startup_ms")
+    rss+=("$(( rss_kb / 1024 ))")
+done
+
+median_startup=$(printf '%s\n' "${startups[@]}" | median)
+median_rss=$(printf '%s\n' "${rss[@]}" | median)
+echo "median: startup ${median_startup} ms, rss ${median_rss} MB"
+
+status=0
+if [ -n "${MAX_STARTUP_MS:-}" ] && [ "$median_startup" -gt "$MAX_STARTUP_MS" ]; then
+    echo "startup regression: ${median_startup} ms > ${MAX_STARTUP_MS} ms" >&2
+    status=1
+fi
+if [ -n "${MAX_RSS_MB:-}" ] && [ "$median_rss" -gt "$MAX_RSS_MB" ]; then
+    echo "memory regression: ${median_rss} MB > ${MAX_RSS_MB} MB" >&2
+    status=1
+fi
+exit "$status"
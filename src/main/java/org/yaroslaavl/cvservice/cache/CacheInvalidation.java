@@ -0,0 +1,10 @@
+package org.yaroslaavl.cvservice.cache;
+
+/**
+ * Tells other nodes to drop a local (L1) entry. A {@code null} key means the whole cache.
+ */
+public record CacheInvalidation(
+        String origin,
+        String cacheName,
+        String key
+) { }
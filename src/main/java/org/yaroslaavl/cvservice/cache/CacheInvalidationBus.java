@@ -0,0 +1,13 @@
+package org.yaroslaavl.cvservice.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts L1 invalidations between cv-service replicas.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,59 @@
+package org.yaroslaavl.cvservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub implementation of {@link CacheInvalidationBus}.
+ */
+@Slf4j
+public class RedisCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final String SEPARATOR = "|";
+    private static final String CLEAR = "C";
+    private static final String EVICT = "E";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+
+    public RedisCacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        String message = String.join(SEPARATOR,
+                invalidation.origin(),
+                invalidation.key() == null ? CLEAR : EVICT,
+                invalidation.cacheName(),
+                invalidation.key() == null ? "" : invalidation.key());
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), message);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cache invalidation {}", invalidation, e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4) {
+                log.warn("Ignoring malformed cache invalidation message");
+                return;
+            }
+
+            listener.accept(new CacheInvalidation(parts[0], parts[2], CLEAR.equals(parts[1]) ? null : parts[3]));
+        }, topic);
+    }
+}
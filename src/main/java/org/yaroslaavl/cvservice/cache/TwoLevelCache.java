@@ -0,0 +1,219 @@
+package org.yaroslaavl.cvservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache backed by a per-node Caffeine L1 in front of a shared L2.
+ * Loads through {@link #get(Object, Callable)} are coalesced per key on each node, so a cold node
+ * sends at most one request per key to L2 and at most one to the loader.
+ * Writes and evictions are propagated to the L1 of other nodes through the {@link CacheInvalidationBus}.
+ * L2 failures are treated as misses so the shared tier never takes the service down.
+ * Keys are normalized to strings so they survive the trip over the invalidation bus.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private static final String L1 = "l1";
+    private static final String L2 = "l2";
+
+    private final String name;
+    private final String nodeId;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache shared;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l2Errors;
+    private final Counter l1RemoteEvictions;
+
+    public TwoLevelCache(String name,
+                         String nodeId,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache shared,
+                         CacheInvalidationBus invalidationBus,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.nodeId = nodeId;
+        this.local = local;
+        this.shared = shared;
+        this.invalidationBus = invalidationBus;
+
+        this.l1Hits = requests(meterRegistry, L1, "hit");
+        this.l1Misses = requests(meterRegistry, L1, "miss");
+        this.l2Hits = requests(meterRegistry, L2, "hit");
+        this.l2Misses = requests(meterRegistry, L2, "miss");
+        this.l2Errors = requests(meterRegistry, L2, "error");
+        this.l1RemoteEvictions = Counter.builder("cv.cache.remote.evictions")
+                .tag("cache", name)
+                .tag("tier", L1)
+                .register(meterRegistry);
+        meterRegistry.gauge("cv.cache.size", Tags.of("cache", name, "tier", L1),
+                local, com.github.benmanes.caffeine.cache.Cache::estimatedSize);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String cacheKey = String.valueOf(key);
+        Object value = local.getIfPresent(cacheKey);
+        if (value != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(value);
+        }
+
+        l1Misses.increment();
+        ValueWrapper wrapper = getShared(cacheKey);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(cacheKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Returns the value from L1, then L2, and only then calls the loader.
+     * A {@code null} result of the loader is not cached.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = String.valueOf(key);
+        Object value = local.getIfPresent(cacheKey);
+        if (value != null) {
+            l1Hits.increment();
+            return (T) value;
+        }
+
+        l1Misses.increment();
+        return (T) local.get(cacheKey, k -> {
+            ValueWrapper wrapper = getShared(k);
+            if (wrapper != null && wrapper.get() != null) {
+                return wrapper.get();
+            }
+
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+
+            if (loaded != null) {
+                putShared(k, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+
+        String cacheKey = String.valueOf(key);
+        putShared(cacheKey, value);
+        local.put(cacheKey, value);
+        invalidationBus.publish(new CacheInvalidation(nodeId, name, cacheKey));
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = String.valueOf(key);
+        try {
+            shared.evict(cacheKey);
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            log.warn("Failed to evict {} from shared cache {}", cacheKey, name, e);
+        }
+        local.invalidate(cacheKey);
+        invalidationBus.publish(new CacheInvalidation(nodeId, name, cacheKey));
+    }
+
+    @Override
+    public void clear() {
+        try {
+            shared.clear();
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            log.warn("Failed to clear shared cache {}", name, e);
+        }
+        local.invalidateAll();
+        invalidationBus.publish(new CacheInvalidation(nodeId, name, null));
+    }
+
+    /**
+     * Drops an L1 entry in reaction to an invalidation published by another node.
+     */
+    void evictLocal(String key) {
+        l1RemoteEvictions.increment();
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    private ValueWrapper getShared(String key) {
+        try {
+            ValueWrapper wrapper = shared.get(key);
+            if (wrapper != null) {
+                l2Hits.increment();
+            } else {
+                l2Misses.increment();
+            }
+            return wrapper;
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            log.warn("Failed to read {} from shared cache {}", key, name, e);
+            return null;
+        }
+    }
+
+    private void putShared(String key, Object value) {
+        try {
+            shared.put(key, value);
+        } catch (RuntimeException e) {
+            l2Errors.increment();
+            log.warn("Failed to write {} to shared cache {}", key, name, e);
+        }
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cv.cache.requests")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package org.yaroslaavl.cvservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates a {@link TwoLevelCache} for every cache of the shared (L2) manager and applies
+ * invalidations received from other nodes to the local tier.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final CacheManager sharedCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Duration> ttls;
+    private final Duration localTtl;
+    private final long localMaximumSize;
+
+    public TwoLevelCacheManager(CacheManager sharedCacheManager,
+                                CacheInvalidationBus invalidationBus,
+                                MeterRegistry meterRegistry,
+                                Map<String, Duration> ttls,
+                                Duration localTtl,
+                                long localMaximumSize) {
+        this.sharedCacheManager = sharedCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+        this.ttls = ttls;
+        this.localTtl = localTtl;
+        this.localMaximumSize = localMaximumSize;
+
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache shared = Objects.requireNonNull(sharedCacheManager.getCache(name), "No shared cache " + name);
+        Duration ttl = ttls.getOrDefault(name, localTtl);
+
+        return new TwoLevelCache(name, nodeId,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(ttl.compareTo(localTtl) < 0 ? ttl : localTtl)
+                        .maximumSize(localMaximumSize)
+                        .build(),
+                shared, invalidationBus, meterRegistry);
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache != null) {
+            log.debug("Applying remote invalidation {}", invalidation);
+            cache.evictLocal(invalidation.key());
+        }
+    }
+}
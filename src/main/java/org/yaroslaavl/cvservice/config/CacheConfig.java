@@ -0,0 +1,162 @@
+package org.yaroslaavl.cvservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.data.redis.RedisHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.yaroslaavl.cvservice.cache.CacheInvalidationBus;
+import org.yaroslaavl.cvservice.cache.LocalCacheInvalidationBus;
+import org.yaroslaavl.cvservice.cache.RedisCacheInvalidationBus;
+import org.yaroslaavl.cvservice.cache.TwoLevelCacheManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Two-level cache for approval checks, CV rows and presigned URLs.
+ * The shared tier is selected with {@code cv.cache.shared}: {@code redis} for multi-node deployments,
+ * {@code local} (default) for an in-process stand-in used by single-node runs and tests.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String APPROVAL_CACHE = "approval";
+    public static final String CV_CACHE = "cv";
+    public static final String PRESIGN_CACHE = "presign";
+
+    private static final String SHARED_TIER = "cv.cache.shared";
+    private static final String REDIS = "redis";
+    private static final String LOCAL = "local";
+
+    @Value("${cv.cache.shared:local}")
+    private String sharedTier;
+
+    @Value("${cv.cache.ttl.approval:PT5M}")
+    private Duration approvalTtl;
+
+    @Value("${cv.cache.ttl.cv:PT30M}")
+    private Duration cvTtl;
+
+    @Value("${cv.cache.ttl.presign:PT20M}")
+    private Duration presignTtl;
+
+    @Value("${cv.cache.local.ttl:PT1M}")
+    private Duration localTtl;
+
+    @Value("${cv.cache.local.maximum-size:10000}")
+    private Long localMaximumSize;
+
+    @Value("${cv.cache.invalidation-channel:cv-service:cache-invalidation}")
+    private String invalidationChannel;
+
+    /**
+     * Puts and evictions issued inside a transaction are applied after commit,
+     * so a concurrent reader cannot re-cache the state that is being replaced.
+     */
+    @Bean
+    @Primary
+    public CacheManager cacheManager(@Qualifier("sharedCacheManager") CacheManager sharedCacheManager,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     MeterRegistry meterRegistry) {
+        return new TransactionAwareCacheManagerProxy(new TwoLevelCacheManager(
+                sharedCacheManager, cacheInvalidationBus, meterRegistry, ttls(), localTtl, localMaximumSize));
+    }
+
+    /**
+     * The tier is picked here rather than through bean conditions, so an AOT-processed build
+     * still follows {@code cv.cache.shared} at runtime.
+     */
+    @Bean("sharedCacheManager")
+    public CacheManager sharedCacheManager(ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        return isRedisTier()
+                ? redisSharedCacheManager(redisConnectionFactory.getObject())
+                : localSharedCacheManager();
+    }
+
+    /**
+     * Redis is only a dependency of the service when it backs the shared tier, so its health indicator
+     * is registered here instead of through {@code management.health.redis.enabled}
+     * and reports {@code UNKNOWN} (ignored by the aggregate status) on the local tier.
+     */
+    @Bean
+    public HealthIndicator redisHealthIndicator(ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        if (isRedisTier()) {
+            return new RedisHealthIndicator(redisConnectionFactory.getObject());
+        }
+        return () -> Health.unknown().withDetail("reason", SHARED_TIER + " is " + sharedTier).build();
+    }
+
+    /**
+     * Only started on the redis tier; on the local tier it never opens a connection.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory.getObject());
+        container.setAutoStartup(isRedisTier());
+        return container;
+    }
+
+    @Bean("cacheInvalidationBus")
+    public CacheInvalidationBus cacheInvalidationBus(ObjectProvider<StringRedisTemplate> stringRedisTemplate,
+                                                     RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+        return isRedisTier()
+                ? new RedisCacheInvalidationBus(stringRedisTemplate.getObject(), cacheInvalidationListenerContainer, invalidationChannel)
+                : new LocalCacheInvalidationBus();
+    }
+
+    private boolean isRedisTier() {
+        return switch (sharedTier) {
+            case REDIS -> true;
+            case LOCAL -> false;
+            default -> throw new IllegalArgumentException(SHARED_TIER + " must be " + REDIS + " or " + LOCAL + ", got " + sharedTier);
+        };
+    }
+
+    private CacheManager redisSharedCacheManager(RedisConnectionFactory redisConnectionFactory) {
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        ttls().forEach((name, ttl) -> configurations.put(name, RedisCacheConfiguration.defaultCacheConfig()
+                .prefixCacheNameWith("cv-service:")
+                .disableCachingNullValues()
+                .entryTtl(ttl)));
+
+        return RedisCacheManager.builder(redisConnectionFactory)
+                .withInitialCacheConfigurations(configurations)
+                .disableCreateOnMissingCache()
+                .build();
+    }
+
+    private CacheManager localSharedCacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(ttls().entrySet().stream()
+                .map(entry -> new CaffeineCache(entry.getKey(), Caffeine.newBuilder()
+                        .expireAfterWrite(entry.getValue())
+                        .build(), false))
+                .toList());
+        return cacheManager;
+    }
+
+    private Map<String, Duration> ttls() {
+        return Map.of(
+                APPROVAL_CACHE, approvalTtl,
+                CV_CACHE, cvTtl,
+                PRESIGN_CACHE, presignTtl);
+    }
+}
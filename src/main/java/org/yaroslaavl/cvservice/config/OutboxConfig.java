@@ -0,0 +1,42 @@
+package org.yaroslaavl.cvservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.yaroslaavl.cvservice.outbox.CVEventSink;
+import org.yaroslaavl.cvservice.outbox.LocalCVEventSink;
+import org.yaroslaavl.cvservice.outbox.RedisCVEventSink;
+
+/**
+ * Sink for CV lifecycle events relayed from the outbox, selected with {@code cv.outbox.sink}:
+ * {@code redis} publishes to a pub/sub channel, {@code local} (default) keeps events in memory.
+ * The property is read when the bean is created, so it is not baked into an AOT-processed build.
+ */
+@Configuration
+public class OutboxConfig {
+
+    private static final String SINK = "cv.outbox.sink";
+    private static final String REDIS = "redis";
+    private static final String LOCAL = "local";
+
+    @Value("${cv.outbox.sink:local}")
+    private String sink;
+
+    @Value("${cv.outbox.channel:cv-service:cv-events}")
+    private String channel;
+
+    @Value("${cv.outbox.local.capacity:1000}")
+    private Integer localCapacity;
+
+    @Bean("cvEventSink")
+    public CVEventSink cvEventSink(ObjectProvider<StringRedisTemplate> stringRedisTemplate, ObjectMapper objectMapper) {
+        return switch (sink) {
+            case REDIS -> new RedisCVEventSink(stringRedisTemplate.getObject(), objectMapper, channel);
+            case LOCAL -> new LocalCVEventSink(localCapacity);
+            default -> throw new IllegalArgumentException(SINK + " must be " + REDIS + " or " + LOCAL + ", got " + sink);
+        };
+    }
+}
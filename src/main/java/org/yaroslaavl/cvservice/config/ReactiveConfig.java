@@ -0,0 +1,37 @@
+package org.yaroslaavl.cvservice.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * The R2DBC ConnectionFactory (pooled), DatabaseClient, repositories and ReactiveTransactionManager
+ * come from Spring Boot's R2DBC auto-configuration, which only the reactive profile enables.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * With R2DBC enabled the context holds a JPA and an R2DBC transaction manager. The JPA one is
+     * declared here and made primary, so {@code @Transactional} on the blocking services (reconciliation,
+     * outbox) keeps resolving to it; the reactive service uses the auto-configured TransactionalOperator.
+     */
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+}
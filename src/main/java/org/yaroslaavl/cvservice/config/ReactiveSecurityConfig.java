@@ -0,0 +1,54 @@
+package org.yaroslaavl.cvservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.yaroslaavl.cvservice.config.converter.KeyCloakAuthenticationRoleConverter;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwtSpec -> jwtSpec
+                                .jwtAuthenticationConverter(jwtToken -> {
+                                    Collection<GrantedAuthority> authorities = new KeyCloakAuthenticationRoleConverter().convert(jwtToken);
+                                    return Mono.just(new JwtAuthenticationToken(jwtToken, authorities));
+                                })
+                        )
+                )
+                .authorizeExchange(
+                        exchange -> exchange
+                                .pathMatchers(
+                                        "/error",
+                                        "/actuator/health").permitAll()
+                                .pathMatchers(
+                                        "/api/v1/cv/summaries",
+                                        "/api/v1/cv/events",
+                                        "/api/v1/cv/*/recruiter",
+                                        "/api/v1/cv/*/recruiter/content").hasRole("INTERNAL_SERVICE")
+                                .pathMatchers(
+                                        "/api/v1/cv/upload",
+                                        "/api/v1/cv/*",
+                                        "/api/v1/cv/*/candidate",
+                                        "/api/v1/cv/*/candidate/content",
+                                        "/api/v1/cv/*/promote"
+                                        ).hasRole("VERIFIED_CANDIDATE")
+                );
+
+        return http.build();
+    }
+}
@@ -2,6 +2,7 @@ package org.yaroslaavl.cvservice.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.core.GrantedAuthority;
@@ -12,6 +13,7 @@ import org.yaroslaavl.cvservice.config.converter.KeyCloakAuthenticationRoleConve
 import java.util.Collection;
 
 @Configuration
+@Profile("!reactive")
 public class SecurityConfig {
 
     @Bean
@@ -35,11 +37,16 @@ public class SecurityConfig {
                                         "/swagger-ui/**",
                                         "/actuator/health").permitAll()
                                 .requestMatchers(
-                                        "/api/v1/cv/*/recruiter").hasRole("INTERNAL_SERVICE")
+                                        "/api/v1/cv/summaries",
+                                        "/api/v1/cv/events",
+                                        "/api/v1/cv/*/recruiter",
+                                        "/api/v1/cv/*/recruiter/content").hasRole("INTERNAL_SERVICE")
                                 .requestMatchers(
                                         "/api/v1/cv/upload",
                                         "/api/v1/cv/*",
-                                        "/api/v1/cv/*/candidate"
+                                        "/api/v1/cv/*/candidate",
+                                        "/api/v1/cv/*/candidate/content",
+                                        "/api/v1/cv/*/promote"
                                         ).hasRole("VERIFIED_CANDIDATE")
                 );
 
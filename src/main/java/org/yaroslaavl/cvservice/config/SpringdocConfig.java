@@ -0,0 +1,46 @@
+package org.yaroslaavl.cvservice.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * Marks the springdoc beans lazy so the OpenAPI infrastructure is only built
+ * on the first request to the docs endpoints instead of during startup.
+ */
+@Configuration
+public class SpringdocConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    public static BeanFactoryPostProcessor lazySpringdocBeanFactoryPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                if (isSpringdocBean(beanDefinition)) {
+                    beanDefinition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isSpringdocBean(BeanDefinition beanDefinition) {
+        if (isSpringdocType(beanDefinition.getBeanClassName()) || isSpringdocType(beanDefinition.getFactoryBeanName())) {
+            return true;
+        }
+
+        if (beanDefinition instanceof AnnotatedBeanDefinition annotatedBeanDefinition) {
+            MethodMetadata factoryMethod = annotatedBeanDefinition.getFactoryMethodMetadata();
+            return factoryMethod != null && isSpringdocType(factoryMethod.getDeclaringClassName());
+        }
+        return false;
+    }
+
+    private static boolean isSpringdocType(String name) {
+        return name != null && name.startsWith(SPRINGDOC_PACKAGE);
+    }
+}
@@ -1,19 +1,32 @@
 package org.yaroslaavl.cvservice.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.yaroslaavl.cvservice.dto.CVContentDto;
 import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryPageDto;
 import org.yaroslaavl.cvservice.dto.CVUploadDto;
 import org.yaroslaavl.cvservice.service.MinioCVService;
 import org.yaroslaavl.cvservice.validation.CVUpload;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/cv")
 public class CVController {
@@ -41,16 +54,62 @@ public class CVController {
         return ResponseEntity.ok(minioCVService.getCvForRecruiter(cvId));
     }
 
+    @GetMapping("/{cvId}/candidate/content")
+    public ResponseEntity<StreamingResponseBody> getCvContentForCandidate(@PathVariable UUID cvId,
+                                                                          @RequestParam("isMain") boolean isMain) {
+        return toPdfResponse(minioCVService.getCvContentForCandidate(cvId, isMain));
+    }
+
+    @GetMapping("/{cvId}/recruiter/content")
+    public ResponseEntity<StreamingResponseBody> getCvContentForRecruiter(@PathVariable UUID cvId) {
+        return toPdfResponse(minioCVService.getCvContentForRecruiter(cvId));
+    }
+
     @GetMapping("/info")
     public ResponseEntity<List<CVSummaryDto>> findAllCandidateCvs() {
         return ResponseEntity.ok(minioCVService.findAllCandidateCvs());
     }
 
+    @GetMapping("/summaries")
+    public ResponseEntity<CVSummaryPageDto> findCvSummaries(@RequestParam(value = "userIds", required = false) List<String> userIds,
+                                                            @RequestParam(value = "isMain", required = false) Boolean isMain,
+                                                            @RequestParam(value = "uploadedFrom", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedFrom,
+                                                            @RequestParam(value = "uploadedTo", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedTo,
+                                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                                            @RequestParam(value = "size", defaultValue = "100") int size) {
+        CVSummaryFilterDto filter = new CVSummaryFilterDto(userIds, isMain, uploadedFrom, uploadedTo);
+        return ResponseEntity.ok(minioCVService.findCvSummaries(filter, cursor, size));
+    }
+
+    @PatchMapping("/{cvId}/promote")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public ResponseEntity<Void> promote(@PathVariable UUID cvId) {
+        minioCVService.promote(cvId);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{isMain}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public ResponseEntity<Void> remove(@PathVariable boolean isMain) {
         minioCVService.remove(isMain);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private ResponseEntity<StreamingResponseBody> toPdfResponse(CVContentDto cvContent) {
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream content = cvContent.content()) {
+                content.transferTo(outputStream);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(cvContent.fileName() + ".pdf", StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
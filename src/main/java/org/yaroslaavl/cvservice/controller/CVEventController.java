@@ -0,0 +1,26 @@
+package org.yaroslaavl.cvservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.yaroslaavl.cvservice.dto.CVEventPageDto;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
+
+@RestController
+@Profile("!reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/cv/events")
+public class CVEventController {
+
+    private final CVOutboxService outboxService;
+
+    @GetMapping
+    public ResponseEntity<CVEventPageDto> findEvents(@RequestParam(value = "after", defaultValue = "0") long after,
+                                                     @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(outboxService.findEvents(after, limit));
+    }
+}
@@ -0,0 +1,126 @@
+package org.yaroslaavl.cvservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.web.bind.annotation.*;
+import org.yaroslaavl.cvservice.dto.CVContentDto;
+import org.yaroslaavl.cvservice.dto.CVEventPageDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryPageDto;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
+import org.yaroslaavl.cvservice.service.ReactiveMinioCVService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/cv")
+public class ReactiveCVController {
+
+    private final ReactiveMinioCVService minioCVService;
+    private final CVOutboxService outboxService;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @PostMapping("/upload")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<ResponseEntity<Void>> upload(@RequestPart("cv") FilePart cv,
+                                             @RequestPart("isMain") FormFieldPart isMain) {
+        return minioCVService.upload(cv, Boolean.parseBoolean(isMain.value()))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("/{cvId}/candidate")
+    public Mono<ResponseEntity<String>> getCvForCandidate(@PathVariable UUID cvId,
+                                                          @RequestParam("isMain") boolean isMain) {
+        return minioCVService.getCvForCandidate(cvId, isMain).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{cvId}/recruiter")
+    public Mono<ResponseEntity<String>> getCvForRecruiter(@PathVariable UUID cvId) {
+        return minioCVService.getCvForRecruiter(cvId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{cvId}/candidate/content")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCvContentForCandidate(@PathVariable UUID cvId,
+                                                                           @RequestParam("isMain") boolean isMain) {
+        return minioCVService.getCvContentForCandidate(cvId, isMain).map(this::toPdfResponse);
+    }
+
+    @GetMapping("/{cvId}/recruiter/content")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCvContentForRecruiter(@PathVariable UUID cvId) {
+        return minioCVService.getCvContentForRecruiter(cvId).map(this::toPdfResponse);
+    }
+
+    @GetMapping("/info")
+    public Mono<ResponseEntity<List<CVSummaryDto>>> findAllCandidateCvs() {
+        return minioCVService.findAllCandidateCvs().collectList().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/summaries")
+    public Mono<ResponseEntity<CVSummaryPageDto>> findCvSummaries(@RequestParam(value = "userIds", required = false) List<String> userIds,
+                                                                  @RequestParam(value = "isMain", required = false) Boolean isMain,
+                                                                  @RequestParam(value = "uploadedFrom", required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedFrom,
+                                                                  @RequestParam(value = "uploadedTo", required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedTo,
+                                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                                  @RequestParam(value = "size", defaultValue = "100") int size) {
+        CVSummaryFilterDto filter = new CVSummaryFilterDto(userIds, isMain, uploadedFrom, uploadedTo);
+        return minioCVService.findCvSummaries(filter, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/events")
+    public Mono<ResponseEntity<CVEventPageDto>> findEvents(@RequestParam(value = "after", defaultValue = "0") long after,
+                                                           @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return Mono.fromCallable(() -> outboxService.findEvents(after, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PatchMapping("/{cvId}/promote")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<ResponseEntity<Void>> promote(@PathVariable UUID cvId) {
+        return minioCVService.promote(cvId)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @DeleteMapping("/{isMain}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<ResponseEntity<Void>> remove(@PathVariable boolean isMain) {
+        return minioCVService.remove(isMain)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> toPdfResponse(CVContentDto cvContent) {
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(cvContent::content, DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(cvContent.fileName() + ".pdf", StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,7 @@
+package org.yaroslaavl.cvservice.database.entity;
+
+public enum CVEventType {
+    CV_CREATED,
+    CV_UPDATED,
+    CV_DELETED
+}
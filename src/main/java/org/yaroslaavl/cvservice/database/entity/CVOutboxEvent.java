@@ -0,0 +1,53 @@
+package org.yaroslaavl.cvservice.database.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cv_outbox_event", schema = "cv_data")
+public class CVOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, updatable = false)
+    private UUID eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false)
+    private CVEventType eventType;
+
+    @Column(name = "cv_id", nullable = false, updatable = false)
+    private UUID cvId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
+    @Column(name = "is_main", nullable = false, updatable = false)
+    private Boolean isMain;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "position")
+    private Long position;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    public void setCreationDateTime() {
+        if (this.eventId == null) {
+            this.eventId = UUID.randomUUID();
+        }
+        this.occurredAt = LocalDateTime.now();
+    }
+}
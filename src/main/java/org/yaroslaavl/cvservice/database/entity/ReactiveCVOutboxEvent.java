@@ -0,0 +1,48 @@
+package org.yaroslaavl.cvservice.database.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code cv_outbox_event} table, so the reactive stack can write events in its own
+ * transaction; mirrors {@link CVOutboxEvent}. Relaying stays on the JPA side.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cv_outbox_event", schema = "cv_data")
+public class ReactiveCVOutboxEvent {
+
+    @Id
+    private Long id;
+
+    @Column("event_id")
+    private UUID eventId;
+
+    @Column("event_type")
+    private CVEventType eventType;
+
+    @Column("cv_id")
+    private UUID cvId;
+
+    @Column("user_id")
+    private String userId;
+
+    @Column("is_main")
+    private Boolean isMain;
+
+    @Column("occurred_at")
+    private LocalDateTime occurredAt;
+
+    @Column("position")
+    private Long position;
+
+    @Column("published_at")
+    private LocalDateTime publishedAt;
+}
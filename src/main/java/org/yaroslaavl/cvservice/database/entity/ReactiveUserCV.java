@@ -0,0 +1,38 @@
+package org.yaroslaavl.cvservice.database.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code cv} table used by the reactive stack; mirrors {@link UserCV}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cv", schema = "cv_data")
+public class ReactiveUserCV {
+
+    @Id
+    private UUID id;
+
+    @Column("user_id")
+    private String userId;
+
+    @Column("file_path")
+    private String filePath;
+
+    @Column("is_main")
+    private Boolean isMain;
+
+    @Column("file_name")
+    private String fileName;
+
+    @Column("uploaded_at")
+    private LocalDateTime uploadedAt;
+}
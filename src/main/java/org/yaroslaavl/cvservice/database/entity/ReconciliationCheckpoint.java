@@ -0,0 +1,30 @@
+package org.yaroslaavl.cvservice.database.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reconciliation_checkpoint", schema = "cv_data")
+public class ReconciliationCheckpoint {
+
+    @Id
+    private String id;
+
+    @Column(name = "last_key")
+    private String lastKey;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PreUpdate
+    @PrePersist
+    public void setUpdateDateTime() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package org.yaroslaavl.cvservice.database.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.yaroslaavl.cvservice.database.entity.CVOutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CVOutboxEventRepository extends JpaRepository<CVOutboxEvent, Long> {
+
+    List<CVOutboxEvent> findByPositionIsNullOrderByIdAsc(Limit limit);
+
+    List<CVOutboxEvent> findByPositionGreaterThanOrderByPositionAsc(Long position, Limit limit);
+
+    /**
+     * Transaction-scoped advisory lock; released automatically on commit or rollback.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(@Param("key") long key);
+
+    @Query(value = "SELECT nextval('cv_data.cv_outbox_position_seq') FROM generate_series(1, :count)", nativeQuery = true)
+    List<Long> nextPositions(@Param("count") int count);
+
+    @Modifying
+    @Query("DELETE FROM CVOutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,6 +1,10 @@
 package org.yaroslaavl.cvservice.database.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.yaroslaavl.cvservice.database.entity.UserCV;
 
@@ -9,7 +13,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CVRepository extends JpaRepository<UserCV, UUID> {
+public interface CVRepository extends JpaRepository<UserCV, UUID>, CVRepositoryCustom {
 
     long countByUserId(String userId);
 
@@ -18,4 +22,33 @@ public interface CVRepository extends JpaRepository<UserCV, UUID> {
     Optional<UserCV> findByIsMainAndUserId(Boolean isMain, String userId);
 
     List<UserCV> findAllByUserId(String userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<UserCV> findWithLockById(UUID id);
+
+    /**
+     * Locks the user's rows for the rest of the transaction. Taken before the user's objects are changed
+     * in storage, so reconciliation cannot mistake an in-flight change for a missing object.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserCV> findAllWithLockByUserId(String userId);
+
+    /**
+     * Keyset page over CVs whose file path lies in [prefix, prefixEnd), ordered by (file_path, id).
+     * File paths are compared bytewise ("C" collation) so the order matches MinIO's object listing,
+     * and every bound is a range on idx_cv_file_path_c_id so each page is an index range scan.
+     */
+    @Query(value = """
+            SELECT * FROM cv_data.cv c
+            WHERE c.file_path COLLATE "C" >= :prefix
+              AND c.file_path COLLATE "C" < :prefixEnd
+              AND (c.file_path COLLATE "C", c.id) > (:afterPath, :afterId)
+            ORDER BY c.file_path COLLATE "C", c.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserCV> findPageByFilePathPrefix(@Param("prefix") String prefix,
+                                          @Param("prefixEnd") String prefixEnd,
+                                          @Param("afterPath") String afterPath,
+                                          @Param("afterId") UUID afterId,
+                                          @Param("limit") int limit);
 }
@@ -0,0 +1,19 @@
+package org.yaroslaavl.cvservice.database.repository;
+
+import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CVRepositoryCustom {
+
+    /**
+     * Keyset page of CV summaries ordered by (uploaded_at, id), starting after the given position.
+     *
+     * @param afterUploadedAt uploadedAt of the last row of the previous page, {@code null} for the first page.
+     * @param afterId         id of the last row of the previous page, {@code null} for the first page.
+     */
+    List<CVSummaryDto> findSummaryPage(CVSummaryFilterDto filter, LocalDateTime afterUploadedAt, UUID afterId, int limit);
+}
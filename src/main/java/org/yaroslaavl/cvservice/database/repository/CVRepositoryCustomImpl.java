@@ -0,0 +1,61 @@
+package org.yaroslaavl.cvservice.database.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.yaroslaavl.cvservice.database.entity.UserCV;
+import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class CVRepositoryCustomImpl implements CVRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CVSummaryDto> findSummaryPage(CVSummaryFilterDto filter, LocalDateTime afterUploadedAt, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CVSummaryDto> query = cb.createQuery(CVSummaryDto.class);
+        Root<UserCV> cv = query.from(UserCV.class);
+        Path<LocalDateTime> uploadedAt = cv.get("uploadedAt");
+        Path<UUID> id = cv.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.userIds() != null && !filter.userIds().isEmpty()) {
+            predicates.add(cv.get("userId").in(filter.userIds()));
+        }
+        if (filter.isMain() != null) {
+            predicates.add(cb.equal(cv.get("isMain"), filter.isMain()));
+        }
+        if (filter.uploadedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(uploadedAt, filter.uploadedFrom()));
+        }
+        if (filter.uploadedTo() != null) {
+            predicates.add(cb.lessThan(uploadedAt, filter.uploadedTo()));
+        }
+        if (afterUploadedAt != null && afterId != null) {
+            // Redundant with the OR below, but gives the planner a range start on idx_cv_uploaded_at_id.
+            predicates.add(cb.greaterThanOrEqualTo(uploadedAt, afterUploadedAt));
+            predicates.add(cb.or(
+                    cb.greaterThan(uploadedAt, afterUploadedAt),
+                    cb.and(cb.equal(uploadedAt, afterUploadedAt), cb.greaterThan(id, afterId))));
+        }
+
+        query.select(cb.construct(CVSummaryDto.class, id, cv.get("userId"), cv.get("fileName"), cv.get("isMain"), uploadedAt))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(uploadedAt), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
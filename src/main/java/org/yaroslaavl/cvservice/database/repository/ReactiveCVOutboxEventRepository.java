@@ -0,0 +1,9 @@
+package org.yaroslaavl.cvservice.database.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import org.yaroslaavl.cvservice.database.entity.ReactiveCVOutboxEvent;
+
+@Repository
+public interface ReactiveCVOutboxEventRepository extends R2dbcRepository<ReactiveCVOutboxEvent, Long> {
+}
@@ -0,0 +1,28 @@
+package org.yaroslaavl.cvservice.database.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import org.yaroslaavl.cvservice.database.entity.ReactiveUserCV;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveCVRepository extends R2dbcRepository<ReactiveUserCV, UUID> {
+
+    Mono<Long> countByUserId(String userId);
+
+    Mono<ReactiveUserCV> findByFilePath(String filePath);
+
+    Mono<ReactiveUserCV> findByIsMainAndUserId(Boolean isMain, String userId);
+
+    Flux<ReactiveUserCV> findAllByUserId(String userId);
+
+    /**
+     * Locks the user's rows for the rest of the transaction, see {@link CVRepository#findAllWithLockByUserId}.
+     */
+    @Query("SELECT * FROM cv_data.cv WHERE user_id = :userId FOR UPDATE")
+    Flux<ReactiveUserCV> findAllWithLockByUserId(String userId);
+}
@@ -0,0 +1,47 @@
+package org.yaroslaavl.cvservice.database.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.yaroslaavl.cvservice.database.entity.ReconciliationCheckpoint;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpoint, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO cv_data.reconciliation_checkpoint (id, updated_at)
+            VALUES (:id, now())
+            ON CONFLICT (id) DO NOTHING
+            """, nativeQuery = true)
+    void createIfMissing(@Param("id") String id);
+
+    /**
+     * Takes or extends the lease on the checkpoint row. Expiry is evaluated with the database clock,
+     * so replicas with skewed clocks still agree on who holds the lease.
+     *
+     * @return 1 if the caller holds the lease afterwards, 0 if another owner holds an unexpired lease.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE cv_data.reconciliation_checkpoint
+            SET locked_by = :owner, locked_until = now() + make_interval(secs => :seconds)
+            WHERE id = :id
+              AND (locked_by IS NULL OR locked_by = :owner OR locked_until < now())
+            """, nativeQuery = true)
+    int acquireLease(@Param("id") String id, @Param("owner") String owner, @Param("seconds") long seconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE cv_data.reconciliation_checkpoint
+            SET locked_by = NULL, locked_until = NULL
+            WHERE id = :id AND locked_by = :owner
+            """, nativeQuery = true)
+    int releaseLease(@Param("id") String id, @Param("owner") String owner);
+}
@@ -0,0 +1,10 @@
+package org.yaroslaavl.cvservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.io.InputStream;
+
+public record CVContentDto(
+        @NotNull String fileName,
+        @NotNull InputStream content
+) { }
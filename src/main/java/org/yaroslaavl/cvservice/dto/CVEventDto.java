@@ -0,0 +1,16 @@
+package org.yaroslaavl.cvservice.dto;
+
+import org.yaroslaavl.cvservice.database.entity.CVEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record CVEventDto(
+        UUID eventId,
+        Long position,
+        CVEventType eventType,
+        UUID cvId,
+        String userId,
+        Boolean isMain,
+        LocalDateTime occurredAt
+) { }
@@ -0,0 +1,11 @@
+package org.yaroslaavl.cvservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record CVSummaryFilterDto(
+        List<String> userIds,
+        Boolean isMain,
+        LocalDateTime uploadedFrom,
+        LocalDateTime uploadedTo
+) { }
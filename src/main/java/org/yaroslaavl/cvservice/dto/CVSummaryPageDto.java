@@ -0,0 +1,11 @@
+package org.yaroslaavl.cvservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record CVSummaryPageDto(
+        @NotNull List<CVSummaryDto> items,
+        String nextCursor,
+        boolean hasMore
+) { }
@@ -0,0 +1,12 @@
+package org.yaroslaavl.cvservice.dto;
+
+public record ReconciliationReportDto(
+        boolean dryRun,
+        boolean completed,
+        String lastKey,
+        long scannedObjects,
+        long scannedRows,
+        long orphanObjects,
+        long danglingRows,
+        long repaired
+) { }
@@ -0,0 +1,7 @@
+package org.yaroslaavl.cvservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
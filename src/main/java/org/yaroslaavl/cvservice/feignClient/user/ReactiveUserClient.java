@@ -0,0 +1,38 @@
+package org.yaroslaavl.cvservice.feignClient.user;
+
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.yaroslaavl.cvservice.feignClient.TokenManager;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link UserFeignClient} used by the reactive stack.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveUserClient {
+
+    private final WebClient webClient;
+    private final TokenManager tokenManager;
+
+    public ReactiveUserClient(@LoadBalanced WebClient.Builder webClientBuilder, TokenManager tokenManager) {
+        this.webClient = webClientBuilder.baseUrl("http://user-service/api/v1").build();
+        this.tokenManager = tokenManager;
+    }
+
+    public Mono<Boolean> isApproved(String userId) {
+        return Mono.fromCallable(tokenManager::getServiceToken)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(token -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/user/isApproved")
+                                .queryParam("userId", userId)
+                                .build())
+                        .headers(headers -> headers.setBearerAuth(token))
+                        .retrieve()
+                        .bodyToMono(Boolean.class));
+    }
+}
@@ -2,7 +2,10 @@ package org.yaroslaavl.cvservice.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.yaroslaavl.cvservice.database.entity.CVOutboxEvent;
+import org.yaroslaavl.cvservice.database.entity.ReactiveUserCV;
 import org.yaroslaavl.cvservice.database.entity.UserCV;
+import org.yaroslaavl.cvservice.dto.CVEventDto;
 import org.yaroslaavl.cvservice.dto.CVSummaryDto;
 
 import java.util.List;
@@ -14,4 +17,15 @@ public interface CVMapper {
     CVSummaryDto toSummaryDto(UserCV userCV);
 
     List<CVSummaryDto> toSummaryDto(List<UserCV> userCvs);
+
+    @Mapping(target = "cvId", source = "id")
+    CVSummaryDto toSummaryDto(ReactiveUserCV userCV);
+
+    UserCV toUserCV(ReactiveUserCV userCV);
+
+    ReactiveUserCV toReactiveUserCV(UserCV userCV);
+
+    CVEventDto toEventDto(CVOutboxEvent event);
+
+    List<CVEventDto> toEventDto(List<CVOutboxEvent> events);
 }
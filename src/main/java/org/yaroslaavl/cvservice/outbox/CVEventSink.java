@@ -0,0 +1,15 @@
+package org.yaroslaavl.cvservice.outbox;
+
+import org.yaroslaavl.cvservice.dto.CVEventDto;
+
+import java.util.List;
+
+/**
+ * Destination of CV lifecycle events relayed from the outbox.
+ * Implementations must throw if the batch was not accepted, so the relay keeps the events and retries.
+ * Delivery is at-least-once; consumers deduplicate on {@link CVEventDto#eventId()}.
+ */
+public interface CVEventSink {
+
+    void publish(List<CVEventDto> events);
+}
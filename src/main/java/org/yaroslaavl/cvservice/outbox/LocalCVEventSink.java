@@ -0,0 +1,52 @@
+package org.yaroslaavl.cvservice.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.yaroslaavl.cvservice.dto.CVEventDto;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for a message broker used by single-node runs and tests.
+ * Keeps the most recent events in memory and hands every event to the in-JVM subscribers.
+ */
+@Slf4j
+public class LocalCVEventSink implements CVEventSink {
+
+    private final int capacity;
+    private final Deque<CVEventDto> published = new ArrayDeque<>();
+    private final List<Consumer<CVEventDto>> listeners = new CopyOnWriteArrayList<>();
+
+    public LocalCVEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void publish(List<CVEventDto> events) {
+        synchronized (published) {
+            for (CVEventDto event : events) {
+                if (published.size() == capacity) {
+                    published.removeFirst();
+                }
+                published.addLast(event);
+            }
+        }
+        events.forEach(event -> {
+            log.debug("Published CV event {}", event);
+            listeners.forEach(listener -> listener.accept(event));
+        });
+    }
+
+    public void subscribe(Consumer<CVEventDto> listener) {
+        listeners.add(listener);
+    }
+
+    public List<CVEventDto> getPublished() {
+        synchronized (published) {
+            return List.copyOf(published);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.yaroslaavl.cvservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.yaroslaavl.cvservice.dto.CVEventDto;
+
+import java.util.List;
+
+/**
+ * Publishes each event as JSON on a Redis pub/sub channel.
+ * Pub/sub does not retain messages, so subscribers that were offline catch up through the replay endpoint.
+ */
+public class RedisCVEventSink implements CVEventSink {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    public RedisCVEventSink(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(List<CVEventDto> events) {
+        for (CVEventDto event : events) {
+            try {
+                redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize CV event " + event.eventId(), e);
+            }
+        }
+    }
+}
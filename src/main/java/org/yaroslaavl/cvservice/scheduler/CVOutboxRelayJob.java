@@ -0,0 +1,42 @@
+package org.yaroslaavl.cvservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CVOutboxRelayJob {
+
+    /**
+     * A runtime switch rather than a condition on the component, for the same reason as in {@link CVReconciliationJob}.
+     */
+    @Value("${cv.outbox.relay.enabled:true}")
+    private Boolean enabled;
+
+    private final CVOutboxService outboxService;
+
+    @Scheduled(fixedDelayString = "${cv.outbox.relay.interval:PT1S}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        int relayed;
+        do {
+            relayed = outboxService.relay();
+        } while (relayed > 0);
+    }
+
+    @Scheduled(cron = "${cv.outbox.retention.cron:0 30 3 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Purging published CV events");
+        outboxService.purgePublished();
+    }
+}
@@ -0,0 +1,34 @@
+package org.yaroslaavl.cvservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaroslaavl.cvservice.service.CVReconciliationService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CVReconciliationJob {
+
+    /**
+     * Checked on each run instead of through a bean condition, so an AOT-processed build follows the property.
+     */
+    @Value("${cv.reconciliation.enabled:false}")
+    private Boolean enabled;
+
+    @Value("${cv.reconciliation.dry-run:true}")
+    private Boolean dryRun;
+
+    private final CVReconciliationService reconciliationService;
+
+    @Scheduled(cron = "${cv.reconciliation.cron:0 0 3 * * *}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Starting CV reconciliation (dryRun={})", dryRun);
+        reconciliationService.reconcile(dryRun);
+    }
+}
@@ -0,0 +1,16 @@
+package org.yaroslaavl.cvservice.service;
+
+import org.yaroslaavl.cvservice.database.entity.CVEventType;
+import org.yaroslaavl.cvservice.database.entity.UserCV;
+import org.yaroslaavl.cvservice.dto.CVEventPageDto;
+
+public interface CVOutboxService {
+
+    void record(CVEventType eventType, UserCV userCV);
+
+    int relay();
+
+    int purgePublished();
+
+    CVEventPageDto findEvents(long after, int limit);
+}
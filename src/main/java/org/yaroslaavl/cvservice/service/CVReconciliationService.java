@@ -0,0 +1,10 @@
+package org.yaroslaavl.cvservice.service;
+
+import org.yaroslaavl.cvservice.dto.ReconciliationReportDto;
+
+import java.util.Optional;
+
+public interface CVReconciliationService {
+
+    Optional<ReconciliationReportDto> reconcile(boolean dryRun);
+}
@@ -1,6 +1,9 @@
 package org.yaroslaavl.cvservice.service;
 
+import org.yaroslaavl.cvservice.dto.CVContentDto;
 import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryPageDto;
 import org.yaroslaavl.cvservice.dto.CVUploadDto;
 
 import java.util.List;
@@ -8,13 +11,26 @@ import java.util.UUID;
 
 public interface MinioCVService {
 
+    /**
+     * File name prefix of the temporary object holding a user's original main CV while {@link #promote} swaps files.
+     */
+    String SWAP_PREFIX = "swap-";
+
     void upload(CVUploadDto cvUploadDto);
 
     void remove(boolean isMain);
 
+    void promote(UUID cvId);
+
     List<CVSummaryDto> findAllCandidateCvs();
 
+    CVSummaryPageDto findCvSummaries(CVSummaryFilterDto filter, String cursor, int size);
+
     String getCvForCandidate(UUID cvId, boolean isMain);
 
     String getCvForRecruiter(UUID cvId);
+
+    CVContentDto getCvContentForCandidate(UUID cvId, boolean isMain);
+
+    CVContentDto getCvContentForRecruiter(UUID cvId);
 }
@@ -0,0 +1,32 @@
+package org.yaroslaavl.cvservice.service;
+
+import org.springframework.http.codec.multipart.FilePart;
+import org.yaroslaavl.cvservice.dto.CVContentDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryPageDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveMinioCVService {
+
+    Mono<Void> upload(FilePart cv, boolean isMain);
+
+    Mono<Void> remove(boolean isMain);
+
+    Mono<Void> promote(UUID cvId);
+
+    Flux<CVSummaryDto> findAllCandidateCvs();
+
+    Mono<CVSummaryPageDto> findCvSummaries(CVSummaryFilterDto filter, String cursor, int size);
+
+    Mono<String> getCvForCandidate(UUID cvId, boolean isMain);
+
+    Mono<String> getCvForRecruiter(UUID cvId);
+
+    Mono<CVContentDto> getCvContentForCandidate(UUID cvId, boolean isMain);
+
+    Mono<CVContentDto> getCvContentForRecruiter(UUID cvId);
+}
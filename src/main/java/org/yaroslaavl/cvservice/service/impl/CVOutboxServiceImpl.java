@@ -0,0 +1,122 @@
+package org.yaroslaavl.cvservice.service.impl;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.yaroslaavl.cvservice.database.entity.CVEventType;
+import org.yaroslaavl.cvservice.database.entity.CVOutboxEvent;
+import org.yaroslaavl.cvservice.database.entity.UserCV;
+import org.yaroslaavl.cvservice.database.repository.CVOutboxEventRepository;
+import org.yaroslaavl.cvservice.dto.CVEventDto;
+import org.yaroslaavl.cvservice.dto.CVEventPageDto;
+import org.yaroslaavl.cvservice.mapper.CVMapper;
+import org.yaroslaavl.cvservice.outbox.CVEventSink;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CVOutboxServiceImpl implements CVOutboxService {
+
+    @Value("${cv.outbox.relay.batch-size:200}")
+    private Integer batchSize;
+
+    @Value("${cv.outbox.max-page-size:500}")
+    private Integer maxPageSize;
+
+    @Value("${cv.outbox.retention:P7D}")
+    private Duration retention;
+
+    private final CVOutboxEventRepository outboxEventRepository;
+    private final CVEventSink cvEventSink;
+    private final CVMapper CVMapper;
+
+    private static final long RELAY_LOCK = 0x63765f6f7574626fL;
+
+    /**
+     * Stores a lifecycle event for the given CV. Must be called inside the transaction that changes the CV,
+     * so the event is committed if and only if the change is.
+     */
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(CVEventType eventType, UserCV userCV) {
+        outboxEventRepository.save(CVOutboxEvent.builder()
+                .eventType(eventType)
+                .cvId(userCV.getId())
+                .userId(userCV.getUserId())
+                .isMain(userCV.getIsMain())
+                .build());
+    }
+
+    /**
+     * Publishes the next batch of unpublished events to the sink.
+     * Only one node relays at a time (transaction-scoped advisory lock), and replay positions are assigned
+     * here rather than at insert time, so positions grow in commit order and a reader that has seen
+     * position N can never later miss an event below N. If the sink fails the transaction rolls back
+     * and the batch is retried on the next run; a failure after publishing leads to redelivery.
+     *
+     * @return the number of events published, 0 if there was nothing to do or another node holds the lock.
+     */
+    @Override
+    @Transactional
+    public int relay() {
+        if (!outboxEventRepository.tryAdvisoryLock(RELAY_LOCK)) {
+            return 0;
+        }
+
+        List<CVOutboxEvent> batch = outboxEventRepository.findByPositionIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> positions = outboxEventRepository.nextPositions(batch.size());
+        LocalDateTime publishedAt = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setPosition(positions.get(i));
+            batch.get(i).setPublishedAt(publishedAt);
+        }
+
+        cvEventSink.publish(CVMapper.toEventDto(batch));
+        log.debug("Relayed {} CV events up to position {}", batch.size(), positions.get(positions.size() - 1));
+        return batch.size();
+    }
+
+    /**
+     * Deletes published events older than {@code cv.outbox.retention}.
+     * Consumers whose cursor falls behind the retention window have to resync from the summaries listing.
+     */
+    @Override
+    @Transactional
+    public int purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        log.info("Purged {} published CV events", deleted);
+        return deleted;
+    }
+
+    /**
+     * Replays published events after the given position in position order.
+     *
+     * @param after position of the last event the caller has processed, 0 to start from the oldest retained event.
+     * @param limit requested page size, capped at {@code cv.outbox.max-page-size}.
+     * @return the events, the position to continue from and whether more events are already available.
+     */
+    @Override
+    public CVEventPageDto findEvents(long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+        List<CVEventDto> page = CVMapper.toEventDto(
+                outboxEventRepository.findByPositionGreaterThanOrderByPositionAsc(after, Limit.of(pageSize + 1)));
+        boolean hasMore = page.size() > pageSize;
+        List<CVEventDto> items = hasMore ? page.subList(0, pageSize) : page;
+
+        long lastPosition = items.isEmpty() ? after : items.get(items.size() - 1).position();
+        return new CVEventPageDto(List.copyOf(items), lastPosition, hasMore);
+    }
+}
@@ -0,0 +1,433 @@
+package org.yaroslaavl.cvservice.service.impl;
+
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.errors.MinioException;
+import io.minio.messages.Item;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.yaroslaavl.cvservice.config.CacheConfig;
+import org.yaroslaavl.cvservice.database.entity.CVEventType;
+import org.yaroslaavl.cvservice.database.entity.ReconciliationCheckpoint;
+import org.yaroslaavl.cvservice.database.entity.UserCV;
+import org.yaroslaavl.cvservice.database.repository.CVRepository;
+import org.yaroslaavl.cvservice.database.repository.ReconciliationCheckpointRepository;
+import org.yaroslaavl.cvservice.dto.ReconciliationReportDto;
+import org.yaroslaavl.cvservice.exception.FileStorageException;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
+import org.yaroslaavl.cvservice.service.CVReconciliationService;
+import org.yaroslaavl.cvservice.service.MinioCVService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CVReconciliationServiceImpl implements CVReconciliationService {
+
+    @Value("${minio.bucket-name}")
+    private String bucket;
+
+    @Value("${minio.url}")
+    private String minioUrl;
+
+    @Value("${bucket.folder}")
+    private String folder;
+
+    @Value("${cv.reconciliation.batch-size:500}")
+    private Integer batchSize;
+
+    @Value("${cv.reconciliation.max-objects-per-run:100000}")
+    private Long maxObjectsPerRun;
+
+    @Value("${cv.reconciliation.grace-period:PT1H}")
+    private Duration gracePeriod;
+
+    @Value("${cv.reconciliation.lease:PT30M}")
+    private Duration lease;
+
+    @Value("${cv.reconciliation.max-orphan-ratio:0.5}")
+    private Double maxOrphanRatio;
+
+    @Value("${cv.reconciliation.guard-min-objects:100}")
+    private Long guardMinObjects;
+
+    private final MinioClient minioClient;
+    private final CVRepository CVRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CVOutboxService outboxService;
+
+    private static final String CHECKPOINT_ID = "cv-minio";
+    private static final String USER_PLACEHOLDER = "{0}";
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    /**
+     * Compares the objects stored under the CV folder prefix with the CV rows in the database.
+     * Both sides are walked in the same bytewise key order (MinIO listing and a keyset-paged query),
+     * so only one page of rows is held in memory at a time. The run resumes from the last stored
+     * checkpoint and stops after {@code cv.reconciliation.max-objects-per-run} objects; the checkpoint
+     * is cleared once the whole prefix has been walked.
+     * Only one replica runs at a time: the run holds a lease on the checkpoint row, renewed on every
+     * checkpoint, and is skipped if another replica holds it.
+     *
+     * @param dryRun if true, drift is only reported; otherwise orphan objects are removed from MinIO
+     *               and rows pointing at missing objects are deleted.
+     *               Objects and rows younger than the grace period are never touched,
+     *               so in-flight uploads are not mistaken for drift. A row is only deleted after it has
+     *               been locked and its object is confirmed missing, see {@link #deleteDanglingRow}.
+     *               Repairs are collected and only applied once {@link #isRepairSafe} has seen enough
+     *               objects; if it fails, the rest of the run is reported as a dry run.
+     * @return summary of the run, empty if another replica is running the reconciliation.
+     */
+    @Override
+    public Optional<ReconciliationReportDto> reconcile(boolean dryRun) {
+        String owner = UUID.randomUUID().toString();
+        checkpointRepository.createIfMissing(CHECKPOINT_ID);
+        if (!renewLease(owner)) {
+            log.info("CV reconciliation is already running on another node, skipping");
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(reconcile(dryRun, owner));
+        } finally {
+            checkpointRepository.releaseLease(CHECKPOINT_ID, owner);
+        }
+    }
+
+    private ReconciliationReportDto reconcile(boolean dryRun, String owner) {
+        String objectPrefix = objectPrefix();
+        String pathPrefix = minioUrl + bucket + "/";
+
+        ReconciliationCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_ID)
+                .orElseGet(() -> ReconciliationCheckpoint.builder().id(CHECKPOINT_ID).build());
+        String startAfter = checkpoint.getLastKey();
+
+        ListObjectsArgs.Builder listArgs = ListObjectsArgs.builder()
+                .bucket(bucket)
+                .prefix(objectPrefix)
+                .recursive(true);
+        if (startAfter != null) {
+            listArgs.startAfter(startAfter);
+        }
+
+        Iterator<Result<Item>> objects = minioClient.listObjects(listArgs.build()).iterator();
+        String rowPrefix = pathPrefix + objectPrefix;
+        RowCursor rows = startAfter == null
+                ? new RowCursor(rowPrefix, rowPrefix, MIN_ID)
+                : new RowCursor(rowPrefix, pathPrefix + startAfter, MAX_ID);
+
+        LocalDateTime rowThreshold = LocalDateTime.now().minus(gracePeriod);
+        ZonedDateTime objectThreshold = ZonedDateTime.now().minus(gracePeriod);
+
+        long scannedObjects = 0;
+        long orphanObjects = 0;
+        long danglingRows = 0;
+        long matchedObjects = 0;
+        long repaired = 0;
+        String lastKey = startAfter;
+        boolean leased = true;
+        boolean repair = !dryRun;
+        List<Item> orphanRepairs = new ArrayList<>();
+        List<UserCV> rowRepairs = new ArrayList<>();
+
+        Item object = nextObject(objects);
+        boolean objectMatched = false;
+
+        while (object != null && scannedObjects < maxObjectsPerRun && leased) {
+            UserCV row = rows.peek();
+            int cmp = row == null ? -1 : object.objectName().compareTo(objectKey(row, pathPrefix));
+
+            if (cmp == 0) {
+                objectMatched = true;
+                rows.next();
+                continue;
+            }
+
+            if (cmp > 0) {
+                danglingRows++;
+                UserCV dangling = rows.next();
+                if (isStaleRow(dangling, rowThreshold) && repair) {
+                    rowRepairs.add(dangling);
+                }
+                continue;
+            }
+
+            if (objectMatched) {
+                matchedObjects++;
+            } else {
+                orphanObjects++;
+                if (isStaleOrphan(object, objectThreshold) && repair) {
+                    orphanRepairs.add(object);
+                }
+            }
+
+            scannedObjects++;
+            lastKey = object.objectName();
+            if (scannedObjects % batchSize == 0) {
+                if (repair && scannedObjects >= guardMinObjects) {
+                    repair = isRepairSafe(scannedObjects, matchedObjects, orphanObjects);
+                    repaired += repair ? applyRepairs(orphanRepairs, rowRepairs, pathPrefix) : 0;
+                    orphanRepairs.clear();
+                    rowRepairs.clear();
+                }
+                saveCheckpoint(checkpoint, lastKey);
+                leased = renewLease(owner);
+                if (!leased) {
+                    log.warn("Lost the CV reconciliation lease, stopping at {}", lastKey);
+                }
+            }
+
+            object = nextObject(objects);
+            objectMatched = false;
+        }
+
+        boolean completed = object == null;
+        if (completed) {
+            UserCV row;
+            while ((row = rows.next()) != null) {
+                danglingRows++;
+                if (isStaleRow(row, rowThreshold) && repair) {
+                    rowRepairs.add(row);
+                }
+            }
+            lastKey = null;
+        }
+        if (repair && leased) {
+            repair = isRepairSafe(scannedObjects, matchedObjects, orphanObjects);
+            repaired += repair ? applyRepairs(orphanRepairs, rowRepairs, pathPrefix) : 0;
+        }
+        saveCheckpoint(checkpoint, lastKey);
+
+        ReconciliationReportDto report = new ReconciliationReportDto(
+                dryRun || !repair, completed, lastKey, scannedObjects, rows.scanned,
+                orphanObjects, danglingRows, repaired);
+        log.info("CV reconciliation finished: {}", report);
+        return report;
+    }
+
+    /**
+     * A misconfigured {@code minio.url}, bucket or folder makes every object look orphaned, so repairs
+     * are refused when objects were scanned but none matched a row, or when more than
+     * {@code cv.reconciliation.max-orphan-ratio} of at least {@code cv.reconciliation.guard-min-objects}
+     * scanned objects are orphans.
+     */
+    private boolean isRepairSafe(long scannedObjects, long matchedObjects, long orphanObjects) {
+        boolean noMatch = scannedObjects > 0 && matchedObjects == 0;
+        boolean tooManyOrphans = scannedObjects >= guardMinObjects
+                && (double) orphanObjects / scannedObjects > maxOrphanRatio;
+        if (noMatch || tooManyOrphans) {
+            log.error("CV reconciliation found {} orphans and {} matches in {} objects, not repairing; check minio.url, "
+                    + "minio.bucket-name and bucket.folder", orphanObjects, matchedObjects, scannedObjects);
+            return false;
+        }
+        return true;
+    }
+
+    private long applyRepairs(List<Item> orphans, List<UserCV> danglingRows, String pathPrefix) {
+        long repaired = 0;
+        for (Item orphan : orphans) {
+            removeOrphanObject(orphan);
+            repaired++;
+        }
+        for (UserCV row : danglingRows) {
+            if (deleteDanglingRow(row, pathPrefix)) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * {@code swap-} objects are never removed: one that outlives its promotion holds a user's original
+     * main CV after a failed revert and is left for manual restore.
+     */
+    private boolean isStaleOrphan(Item object, ZonedDateTime threshold) {
+        if (isSwapObject(object.objectName())) {
+            log.warn("Swap object left behind by a promotion, keeping it: {}", object.objectName());
+            return false;
+        }
+
+        log.warn("Object without CV record: {}", object.objectName());
+        return object.lastModified() != null && !object.lastModified().isAfter(threshold);
+    }
+
+    private void removeOrphanObject(Item object) {
+        removeObject(object.objectName());
+        Objects.requireNonNull(cacheManager.getCache(CacheConfig.PRESIGN_CACHE)).evict(object.objectName());
+        log.info("Removed orphan object: {}", object.objectName());
+    }
+
+    private boolean isStaleRow(UserCV row, LocalDateTime threshold) {
+        log.warn("CV record {} points at missing object: {}", row.getId(), row.getFilePath());
+        return row.getUploadedAt() != null && !row.getUploadedAt().isAfter(threshold);
+    }
+
+    /**
+     * Re-upload and promote replace objects before their transaction commits, so an old row can look
+     * dangling while it is being changed. Those paths lock the user's rows first; here the row is locked
+     * too, which waits for such a change to commit, and the object is checked again before the delete.
+     * The delete writes a {@code CV_DELETED} outbox event in the same transaction, like a user's remove.
+     */
+    private boolean deleteDanglingRow(UserCV row, String pathPrefix) {
+        boolean deleted = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            UserCV locked = CVRepository.findWithLockById(row.getId()).orElse(null);
+            if (locked == null || !Objects.equals(locked.getFilePath(), row.getFilePath())) {
+                return false;
+            }
+            if (objectExists(objectKey(locked, pathPrefix))) {
+                log.info("Object for CV record {} reappeared, keeping the record", row.getId());
+                return false;
+            }
+
+            CVRepository.delete(locked);
+            outboxService.record(CVEventType.CV_DELETED, locked);
+            Objects.requireNonNull(cacheManager.getCache(CacheConfig.CV_CACHE)).evict(locked.getId());
+            return true;
+        }));
+
+        if (deleted) {
+            log.info("Deleted dangling CV record {} for user {}", row.getId(), row.getUserId());
+        }
+        return deleted;
+    }
+
+    private boolean renewLease(String owner) {
+        return checkpointRepository.acquireLease(CHECKPOINT_ID, owner, lease.toSeconds()) > 0;
+    }
+
+    private void saveCheckpoint(ReconciliationCheckpoint checkpoint, String lastKey) {
+        checkpoint.setLastKey(lastKey);
+        checkpointRepository.save(checkpoint);
+    }
+
+    @SneakyThrows
+    private Item nextObject(Iterator<Result<Item>> objects) {
+        while (objects.hasNext()) {
+            Item item = objects.next().get();
+            if (!item.isDir()) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    @SneakyThrows
+    private boolean objectExists(String objectName) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectName)
+                    .build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            log.warn("Failed to check object in storage", e);
+            throw new FileStorageException("Failed to check");
+        } catch (MinioException e) {
+            log.warn("Failed to check object in storage", e);
+            throw new FileStorageException("Failed to check");
+        }
+    }
+
+    @SneakyThrows
+    private void removeObject(String file) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(file)
+                    .build());
+        } catch (MinioException e) {
+            log.warn("Failed to remove object from storage", e);
+            throw new FileStorageException("Failed to remove");
+        }
+    }
+
+    private String objectPrefix() {
+        int placeholder = folder.indexOf(USER_PLACEHOLDER);
+        return placeholder < 0 ? folder : folder.substring(0, placeholder);
+    }
+
+    /**
+     * Smallest string above every string starting with the prefix, in bytewise order.
+     */
+    static String prefixEnd(String prefix) {
+        int last = prefix.codePointBefore(prefix.length());
+        return prefix.substring(0, prefix.length() - Character.charCount(last)) + Character.toString(last + 1);
+    }
+
+    private static boolean isSwapObject(String objectName) {
+        return objectName.substring(objectName.lastIndexOf('/') + 1).startsWith(MinioCVService.SWAP_PREFIX);
+    }
+
+    private static String objectKey(UserCV row, String pathPrefix) {
+        String filePath = row.getFilePath();
+        return filePath.startsWith(pathPrefix) ? filePath.substring(pathPrefix.length()) : filePath;
+    }
+
+    /**
+     * Walks CV rows in keyset-paged batches, keeping a single page in memory.
+     */
+    private class RowCursor {
+
+        private final String prefix;
+        private final String prefixEnd;
+        private final Deque<UserCV> page = new ArrayDeque<>();
+        private String afterPath;
+        private UUID afterId;
+        private boolean exhausted;
+        private long scanned;
+
+        private RowCursor(String prefix, String afterPath, UUID afterId) {
+            this.prefix = prefix;
+            this.prefixEnd = prefixEnd(prefix);
+            this.afterPath = afterPath;
+            this.afterId = afterId;
+        }
+
+        private UserCV peek() {
+            if (page.isEmpty() && !exhausted) {
+                page.addAll(CVRepository.findPageByFilePathPrefix(prefix, prefixEnd, afterPath, afterId, batchSize));
+                exhausted = page.size() < batchSize;
+                if (!page.isEmpty()) {
+                    afterPath = page.getLast().getFilePath();
+                    afterId = page.getLast().getId();
+                }
+            }
+            return page.peekFirst();
+        }
+
+        private UserCV next() {
+            UserCV row = peek();
+            if (row != null) {
+                page.removeFirst();
+                scanned++;
+            }
+            return row;
+        }
+    }
+}
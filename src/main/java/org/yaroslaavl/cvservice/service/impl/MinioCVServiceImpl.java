@@ -11,32 +11,57 @@ import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
+import org.yaroslaavl.cvservice.config.CacheConfig;
+import org.yaroslaavl.cvservice.database.entity.CVEventType;
 import org.yaroslaavl.cvservice.database.entity.UserCV;
 import org.yaroslaavl.cvservice.database.repository.CVRepository;
+import org.yaroslaavl.cvservice.dto.CVContentDto;
 import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryPageDto;
 import org.yaroslaavl.cvservice.dto.CVUploadDto;
 import org.yaroslaavl.cvservice.exception.*;
 import org.yaroslaavl.cvservice.feignClient.user.UserFeignClient;
 import org.yaroslaavl.cvservice.mapper.CVMapper;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
 import org.yaroslaavl.cvservice.service.MinioCVService;
+import org.yaroslaavl.cvservice.storage.StorageCodecChain;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class MinioCVServiceImpl implements MinioCVService {
 
     @Value("${cv.max_elements}")
     private Integer maxElements;
 
+    @Value("${cv.summaries.max-page-size:500}")
+    private Integer maxPageSize;
+
+    @Value("${cv.summaries.settle-time:PT5M}")
+    private Duration summariesSettleTime;
+
     @Value("${minio.bucket-name}")
     private String bucket;
 
@@ -46,16 +71,29 @@ public class MinioCVServiceImpl implements MinioCVService {
     @Value("${bucket.folder}")
     private String folder;
 
+    @Value("${cv.content.base-url:/api/v1/cv/}")
+    private String contentBaseUrl;
+
     private final MinioClient minioClient;
     private final CVMapper CVMapper;
     private final CVRepository CVRepository;
     private final UserFeignClient userFeignClient;
+    private final CacheManager cacheManager;
+    private final StorageCodecChain storageCodecChain;
+    private final CVOutboxService outboxService;
 
     private static final String SUB = "sub";
     private static final String EXTENSION = ".pdf";
+    private static final long PART_SIZE = 10L * 1024 * 1024;
+    private static final String CURSOR_SEPARATOR = "|";
+    /**
+     * Cached in place of a presigned URL for objects that have to be served through the content endpoint.
+     */
+    private static final String CONTENT_PROXY = "";
 
     /**
      * Uploads the user's CV to the storage and saves the corresponding information in the database.
+     * A {@code CV_CREATED} event is written to the outbox in the same transaction.
      *
      * @param cvUploadDto Object containing CV file and associated metadata such as whether it is the main CV.
      *                    The CV file is uploaded and a link is generated, which is stored along with the user's ID.
@@ -66,6 +104,7 @@ public class MinioCVServiceImpl implements MinioCVService {
     @Transactional
     public void upload(CVUploadDto cvUploadDto) {
         checkUserAccountStatus();
+        CVRepository.findAllWithLockByUserId(getAuthenticatedUserSubOrToken());
 
         try {
             if (Objects.requireNonNull(cvUploadDto.cv().getOriginalFilename()).length() >= 100) {
@@ -82,6 +121,7 @@ public class MinioCVServiceImpl implements MinioCVService {
                     .build();
 
             CVRepository.save(userCV);
+            outboxService.record(CVEventType.CV_CREATED, userCV);
         } catch (Exception e) {
             log.error("Unexpected error during cv upload for user", e);
             throw new CVUploadException("Unexpected error during cv upload");
@@ -92,7 +132,8 @@ public class MinioCVServiceImpl implements MinioCVService {
      * Removes the CV associated with the authenticated user.
      * This method verifies user account status, retrieves the CV by the specified
      * `isMain` parameter, validates user permissions, deletes the associated file
-     * from storage (if it exists), and removes the CV record from the database.
+     * from storage (if it exists), and removes the CV record from the database
+     * together with a {@code CV_DELETED} outbox event.
      *
      * @param isMain Flag indicating whether the CV to be removed is the main CV
      *               for the authenticated user.
@@ -107,6 +148,7 @@ public class MinioCVServiceImpl implements MinioCVService {
         checkUserAccountStatus();
 
         String userId = getAuthenticatedUserSubOrToken();
+        CVRepository.findAllWithLockByUserId(userId);
         UserCV userCV = CVRepository.findByIsMainAndUserId(isMain, userId)
                 .orElseThrow(() -> new EntityNotFoundException("CV not found"));
 
@@ -117,59 +159,146 @@ public class MinioCVServiceImpl implements MinioCVService {
         String minioCV = getMinioCV(userId, isMain);
         if (minioCV != null && !minioCV.isEmpty()) {
             removeObject(minioCV);
+            cache(CacheConfig.PRESIGN_CACHE).evict(minioCV);
             log.info("Removed CV from MinIO: {}", minioCV);
         } else {
             log.warn("CV file not found in MinIO: {}", minioCV);
         }
 
         CVRepository.delete(userCV);
+        outboxService.record(CVEventType.CV_DELETED, userCV);
+        cache(CacheConfig.CV_CACHE).evict(userCV.getId());
         log.info("Deleted CV record from DB for user {} (isMain={})", userId, isMain);
     }
 
+    /**
+     * Makes the given CV the authenticated user's main CV.
+     * The user's main and non-main rows swap their {@code isMain} flag and file path in one transaction,
+     * and the stored files are swapped server-side with {@code copyObject}, so no bytes go through the service
+     * and the CV ids stay stable. If the user has no main CV yet, the file is just moved to the main key.
+     * The user's rows are locked before the main CV is looked up, so concurrent promotes run one after another.
+     * The file swap is undone if the transaction rolls back, see {@link ObjectSwap}.
+     *
+     * @param cvId The UUID of the CV to be promoted.
+     * @throws EntityNotFoundException If the CV is not found.
+     * @throws UserHasNoPermissionException If the CV does not belong to the authenticated user.
+     * @throws FileStorageException If the files cannot be copied in storage.
+     */
+    @Override
+    @Transactional
+    public void promote(UUID cvId) {
+        checkUserAccountStatus();
+
+        String userId = getAuthenticatedUserSubOrToken();
+        List<UserCV> userCvs = CVRepository.findAllWithLockByUserId(userId);
+        UserCV promoted = userCvs.stream()
+                .filter(userCV -> Objects.equals(userCV.getId(), cvId))
+                .findFirst()
+                .orElse(null);
+
+        if (promoted == null) {
+            if (!CVRepository.existsById(cvId)) {
+                throw new EntityNotFoundException("CV not found");
+            }
+            throw new UserHasNoPermissionException("User has no permission to promote this cv");
+        }
+
+        if (Boolean.TRUE.equals(promoted.getIsMain())) {
+            log.info("CV {} is already the main CV of user {}", cvId, userId);
+            return;
+        }
+
+        String formattedFolder = MessageFormat.format(folder, userId);
+        String mainObject = formattedFolder + "main" + EXTENSION;
+        String notMainObject = formattedFolder + "notMain" + EXTENSION;
+        Optional<UserCV> demoted = userCvs.stream()
+                .filter(userCV -> Boolean.TRUE.equals(userCV.getIsMain()))
+                .findFirst();
+
+        demoted.ifPresent(current -> {
+            current.setIsMain(false);
+            current.setFilePath(minioUrl + bucket + "/" + notMainObject);
+            CVRepository.saveAndFlush(current);
+            outboxService.record(CVEventType.CV_UPDATED, current);
+        });
+        promoted.setIsMain(true);
+        promoted.setFilePath(minioUrl + bucket + "/" + mainObject);
+        CVRepository.saveAndFlush(promoted);
+        outboxService.record(CVEventType.CV_UPDATED, promoted);
+
+        ObjectSwap swap = new ObjectSwap(mainObject, notMainObject,
+                demoted.isPresent() ? formattedFolder + SWAP_PREFIX + UUID.randomUUID() + EXTENSION : null);
+        TransactionSynchronizationManager.registerSynchronization(swap);
+        swap.apply();
+
+        cache(CacheConfig.CV_CACHE).evict(promoted.getId());
+        demoted.ifPresent(current -> cache(CacheConfig.CV_CACHE).evict(current.getId()));
+        cache(CacheConfig.PRESIGN_CACHE).evict(mainObject);
+        cache(CacheConfig.PRESIGN_CACHE).evict(notMainObject);
+        log.info("Promoted CV {} to main for user {}", cvId, userId);
+    }
+
     /**
      * Retrieves the CV file URL for a specified candidate.
      *
      * @param cvId The UUID of the CV to be retrieved.
      * @param isMain A boolean flag indicating if the main CV should be retrieved.
-     * @return A presigned URL to access the requested CV file.
+     * @return A presigned URL to access the requested CV file, or the URL of the content endpoint
+     *         if the stored object is encrypted.
      * @throws EntityNotFoundException If the specified CV is not found in the repository.
      * @throws UserHasNoPermissionException If the authenticated user does not have permission to access the CV.
      */
     @Override
     @SneakyThrows
     public String getCvForCandidate(UUID cvId, boolean isMain) {
-        CVRepository.findById(cvId)
-                        .orElseThrow(() -> new EntityNotFoundException("CV not found"));
-
-        checkUserAccountStatus();
-
-        String userId = getAuthenticatedUserSubOrToken();
-        String minioCV = getMinioCV(userId, isMain);
+        return downloadUrl(objectName(getCandidateCv(cvId, isMain)), contentBaseUrl + cvId + "/candidate/content?isMain=" + isMain);
+    }
 
-        UserCV userCV = CVRepository.findByFilePath(minioUrl + bucket + "/" + minioCV)
+    /**
+     * Retrieves a CV for a recruiter by its unique identifier.
+     *
+     * @param cvId the unique identifier of the CV to be retrieved.
+     * @return a presigned URL for accessing the CV, or the URL of the content endpoint if the stored object is encrypted.
+     * @throws EntityNotFoundException if the CV with the specified identifier is not found.
+     */
+    @Override
+    public String getCvForRecruiter(UUID cvId) {
+        UserCV userCV = findCv(cvId)
                 .orElseThrow(() -> new EntityNotFoundException("CV not found"));
 
-        if (!Objects.equals(userCV.getUserId(), userId)) {
-            throw new UserHasNoPermissionException("User has no permission to response this cv");
-        }
+        return downloadUrl(objectName(userCV), contentBaseUrl + cvId + "/recruiter/content");
+    }
 
-        return generatePresignedUrl(minioCV);
+    /**
+     * Streams the decoded content of the candidate's CV, reversing the storage codecs
+     * (compression, encryption) recorded on the object. Access rules are the same as for
+     * {@link #getCvForCandidate(UUID, boolean)}.
+     *
+     * @param cvId The UUID of the CV to be retrieved.
+     * @param isMain A boolean flag indicating if the main CV should be retrieved.
+     * @return the file name and the decoded PDF stream; the caller must close the stream.
+     * @throws EntityNotFoundException If the specified CV is not found in the repository.
+     * @throws UserHasNoPermissionException If the authenticated user does not have permission to access the CV.
+     */
+    @Override
+    public CVContentDto getCvContentForCandidate(UUID cvId, boolean isMain) {
+        UserCV userCV = getCandidateCv(cvId, isMain);
+        return new CVContentDto(userCV.getFileName(), getObject(objectName(userCV)));
     }
 
     /**
-     * Retrieves a CV for a recruiter by its unique identifier.
+     * Streams the decoded content of a CV for a recruiter.
      *
      * @param cvId the unique identifier of the CV to be retrieved.
-     * @return a presigned URL for accessing the CV.
+     * @return the file name and the decoded PDF stream; the caller must close the stream.
      * @throws EntityNotFoundException if the CV with the specified identifier is not found.
      */
     @Override
-    public String getCvForRecruiter(UUID cvId) {
-        UserCV userCV = CVRepository.findById(cvId)
+    public CVContentDto getCvContentForRecruiter(UUID cvId) {
+        UserCV userCV = findCv(cvId)
                 .orElseThrow(() -> new EntityNotFoundException("CV not found"));
 
-        String minioCV = getMinioCV(userCV.getUserId(), userCV.getIsMain());
-        return generatePresignedUrl(minioCV);
+        return new CVContentDto(userCV.getFileName(), getObject(objectName(userCV)));
     }
 
     /**
@@ -184,6 +313,99 @@ public class MinioCVServiceImpl implements MinioCVService {
         return CVMapper.toSummaryDto(allUserCvs);
     }
 
+    /**
+     * Returns a page of CV summaries across all users for internal services.
+     * Rows are ordered by (uploadedAt, id) and paged by keyset, so every page costs the same
+     * regardless of how deep the caller is. The returned cursor points at the last row of the page
+     * and can be stored by the caller to pick up rows uploaded later (incremental sync).
+     * uploadedAt is set before the upload commits, so a row can become visible after rows with a later
+     * uploadedAt have already been paged past. Rows are therefore only listed once they are older than
+     * {@code cv.summaries.settle-time}, which has to exceed the longest upload transaction.
+     *
+     * @param filter optional user ids, main flag and uploadedAt range [from, to).
+     * @param cursor opaque cursor from a previous page, or {@code null} to start from the beginning.
+     * @param size   requested page size, capped at {@code cv.summaries.max-page-size}.
+     * @return the page, the cursor to continue from and whether more rows are already available.
+     * @throws InvalidCursorException if the cursor cannot be decoded.
+     */
+    @Override
+    public CVSummaryPageDto findCvSummaries(CVSummaryFilterDto filter, String cursor, int size) {
+        return findSummaryPage(CVRepository, filter, cursor, size, maxPageSize, summariesSettleTime);
+    }
+
+    /**
+     * Blocking paging shared with {@link ReactiveMinioCVServiceImpl#findCvSummaries}, which runs it on a bounded elastic thread.
+     */
+    static CVSummaryPageDto findSummaryPage(CVRepository CVRepository, CVSummaryFilterDto filter, String cursor, int size,
+                                            int maxPageSize, Duration summariesSettleTime) {
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+
+        LocalDateTime afterUploadedAt = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterUploadedAt = LocalDateTime.parse(position[0]);
+            afterId = UUID.fromString(position[1]);
+        }
+
+        LocalDateTime settled = LocalDateTime.now().minus(summariesSettleTime);
+        CVSummaryFilterDto settledFilter = new CVSummaryFilterDto(filter.userIds(), filter.isMain(), filter.uploadedFrom(),
+                filter.uploadedTo() == null || filter.uploadedTo().isAfter(settled) ? settled : filter.uploadedTo());
+
+        List<CVSummaryDto> page = CVRepository.findSummaryPage(settledFilter, afterUploadedAt, afterId, limit + 1);
+        boolean hasMore = page.size() > limit;
+        List<CVSummaryDto> items = hasMore ? page.subList(0, limit) : page;
+
+        String nextCursor = items.isEmpty()
+                ? cursor
+                : encodeCursor(items.get(items.size() - 1));
+        return new CVSummaryPageDto(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    private static String encodeCursor(CVSummaryDto last) {
+        String position = last.uploadedAt() + CURSOR_SEPARATOR + last.cvId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\" + CURSOR_SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            UUID.fromString(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Reads only the cached row: the object name is derived from its file path,
+     * so a cache hit costs neither a MinIO listing nor a database query.
+     */
+    private UserCV getCandidateCv(UUID cvId, boolean isMain) {
+        UserCV userCV = findCv(cvId)
+                .orElseThrow(() -> new EntityNotFoundException("CV not found"));
+
+        checkUserAccountStatus();
+
+        if (!Objects.equals(userCV.getUserId(), getAuthenticatedUserSubOrToken())) {
+            throw new UserHasNoPermissionException("User has no permission to response this cv");
+        }
+        if (!Objects.equals(userCV.getIsMain(), isMain)) {
+            throw new EntityNotFoundException("CV not found");
+        }
+
+        return userCV;
+    }
+
+    private String objectName(UserCV userCV) {
+        return userCV.getFilePath().substring((minioUrl + bucket + "/").length());
+    }
+
     private String getMinioCV(String userId, boolean isMain) {
         String formattedFolder = MessageFormat.format(folder, userId);
         return objectExist(formattedFolder, isMain);
@@ -211,12 +433,59 @@ public class MinioCVServiceImpl implements MinioCVService {
 
     @SneakyThrows
     private void putObject(String bucket, String objectName, boolean isMain, MultipartFile file) {
-        minioClient.putObject(PutObjectArgs.builder()
+        PutObjectArgs.Builder args = PutObjectArgs.builder()
                 .bucket(bucket)
                 .object(objectName + (isMain ? "main" : "notMain") + EXTENSION)
-                .stream(file.getInputStream(), file.getSize(), -1)
-                .contentType(file.getContentType())
-                .build());
+                .contentType(file.getContentType());
+
+        if (storageCodecChain.isEmpty()) {
+            args.stream(file.getInputStream(), file.getSize(), -1);
+        } else {
+            args.stream(storageCodecChain.encode(file.getInputStream()), -1, PART_SIZE)
+                    .userMetadata(Map.of(StorageCodecChain.METADATA_KEY, storageCodecChain.names()));
+        }
+
+        minioClient.putObject(args.build());
+    }
+
+    @SneakyThrows
+    private InputStream getObject(String objectName) {
+        GetObjectResponse response;
+        try {
+            response = minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectName)
+                    .build());
+        } catch (ErrorResponseException e) {
+            throw missingOrFailed(e, "Failed to read");
+        } catch (MinioException e) {
+            log.warn("Failed to read object from storage", e);
+            throw new FileStorageException("Failed to read");
+        }
+
+        try {
+            return storageCodecChain.decode(response, response.headers().get(StorageCodecChain.HEADER));
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    @SneakyThrows
+    private void copyObject(String source, String target) {
+        try {
+            minioClient.copyObject(CopyObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(target)
+                    .source(CopySource.builder()
+                            .bucket(bucket)
+                            .object(source)
+                            .build())
+                    .build());
+        } catch (MinioException e) {
+            log.warn("Failed to copy object {} to {}", source, target, e);
+            throw new FileStorageException("Failed to copy");
+        }
     }
 
     @SneakyThrows
@@ -232,6 +501,85 @@ public class MinioCVServiceImpl implements MinioCVService {
         }
     }
 
+    /**
+     * Server-side swap of a user's main and non-main files that is finished or undone with the transaction.
+     * The original main file is copied to a {@code swap-} object first and only removed after commit;
+     * after a rollback, including one caused by a failed copy, the copies already made are reverted from it.
+     * Without a swap object the non-main file is moved to the main key, and the source is removed after commit.
+     * If the revert fails the swap object is kept, reconciliation never removes it.
+     */
+    private final class ObjectSwap implements TransactionSynchronization {
+
+        private final String mainObject;
+        private final String notMainObject;
+        private final String swapObject;
+        private int copies;
+
+        private ObjectSwap(String mainObject, String notMainObject, String swapObject) {
+            this.mainObject = mainObject;
+            this.notMainObject = notMainObject;
+            this.swapObject = swapObject;
+        }
+
+        private void apply() {
+            if (swapObject == null) {
+                copy(notMainObject, mainObject);
+                return;
+            }
+
+            copy(mainObject, swapObject);
+            copy(notMainObject, mainObject);
+            copy(swapObject, notMainObject);
+        }
+
+        private void copy(String source, String target) {
+            copyObject(source, target);
+            copies++;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                remove(swapObject == null ? notMainObject : swapObject);
+            } else if (status == STATUS_ROLLED_BACK) {
+                revert();
+            } else {
+                log.warn("Promotion of {} finished with unknown transaction status, keeping {}", mainObject, swapObject);
+            }
+        }
+
+        private void revert() {
+            if (copies == 0) {
+                return;
+            }
+
+            try {
+                if (swapObject == null) {
+                    removeObject(mainObject);
+                    return;
+                }
+                if (copies == 3) {
+                    copyObject(mainObject, notMainObject);
+                }
+                if (copies >= 2) {
+                    copyObject(swapObject, mainObject);
+                }
+                removeObject(swapObject);
+                log.info("Reverted the file swap of {} after rollback", mainObject);
+            } catch (Exception e) {
+                log.error("Failed to revert the file swap of {}, the original main CV is kept in {}", mainObject, swapObject, e);
+            }
+        }
+
+        private void remove(String objectName) {
+            try {
+                removeObject(objectName);
+            } catch (Exception e) {
+                log.warn("Failed to remove {} after promotion", objectName, e);
+            }
+        }
+    }
+
     private String storeCvInMinio(MultipartFile file, boolean isMain, String userId) {
         if (file == null || file.isEmpty()) {
             return null;
@@ -245,6 +593,7 @@ public class MinioCVServiceImpl implements MinioCVService {
         }
 
         putObject(bucket, formattedFolder, isMain, file);
+        cache(CacheConfig.PRESIGN_CACHE).evict(formattedFolder + (isMain ? "main" : "notMain") + EXTENSION);
 
         return minioUrl + bucket + "/" + formattedFolder + (isMain ? "main" : "notMain") + EXTENSION;
     }
@@ -291,20 +640,73 @@ public class MinioCVServiceImpl implements MinioCVService {
     }
 
     private void checkUserAccountStatus() {
-        boolean isExistsAndApproved = userFeignClient.isApproved(getAuthenticatedUserSubOrToken());
+        String userId = getAuthenticatedUserSubOrToken();
+        boolean isExistsAndApproved = userId == null
+                ? userFeignClient.isApproved(null)
+                : cache(CacheConfig.APPROVAL_CACHE).get(userId, () -> userFeignClient.isApproved(userId) ? Boolean.TRUE : null) != null;
 
         if (!isExistsAndApproved) {
             throw new CVUploadException("User is not approved or not exists");
         }
     }
 
-    @SneakyThrows
+    /**
+     * A presigned URL serves the object as stored, so for objects whose codecs change the bytes (encryption)
+     * the client gets {@code contentUrl} instead: the content endpoint that decodes the object.
+     */
+    private String downloadUrl(String minioCV, String contentUrl) {
+        String presignedUrl = generatePresignedUrl(minioCV);
+        return CONTENT_PROXY.equals(presignedUrl) ? contentUrl : presignedUrl;
+    }
+
     private String generatePresignedUrl(String minioCV) {
-        return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
-                .bucket(bucket)
-                .method(Method.GET)
-                .object(minioCV)
-                .expiry(30, TimeUnit.MINUTES)
-                .build());
+        return cache(CacheConfig.PRESIGN_CACHE).get(minioCV, () -> {
+            if (!storageCodecChain.isTransparent(storedCodecs(minioCV))) {
+                return CONTENT_PROXY;
+            }
+
+            return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .bucket(bucket)
+                    .method(Method.GET)
+                    .object(minioCV)
+                    .expiry(30, TimeUnit.MINUTES)
+                    .build());
+        });
+    }
+
+    @SneakyThrows
+    private String storedCodecs(String objectName) {
+        try {
+            return minioClient.statObject(StatObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectName)
+                            .build())
+                    .headers()
+                    .get(StorageCodecChain.HEADER);
+        } catch (ErrorResponseException e) {
+            throw missingOrFailed(e, "Failed to read");
+        } catch (MinioException e) {
+            log.warn("Failed to read object metadata from storage", e);
+            throw new FileStorageException("Failed to read");
+        }
+    }
+
+    /**
+     * A row can outlive its object until reconciliation repairs it; that is reported as a missing CV.
+     */
+    private RuntimeException missingOrFailed(ErrorResponseException e, String message) {
+        if ("NoSuchKey".equals(e.errorResponse().code())) {
+            return new EntityNotFoundException("CV not found");
+        }
+        log.warn("Storage request failed", e);
+        return new FileStorageException(message);
+    }
+
+    private Optional<UserCV> findCv(UUID cvId) {
+        return Optional.ofNullable(cache(CacheConfig.CV_CACHE).get(cvId, () -> CVRepository.findById(cvId).orElse(null)));
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name));
     }
 }
@@ -0,0 +1,704 @@
+package org.yaroslaavl.cvservice.service.impl;
+
+import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.Item;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.yaroslaavl.cvservice.config.CacheConfig;
+import org.yaroslaavl.cvservice.database.entity.CVEventType;
+import org.yaroslaavl.cvservice.database.entity.ReactiveCVOutboxEvent;
+import org.yaroslaavl.cvservice.database.entity.ReactiveUserCV;
+import org.yaroslaavl.cvservice.database.entity.UserCV;
+import org.yaroslaavl.cvservice.database.repository.CVRepository;
+import org.yaroslaavl.cvservice.database.repository.ReactiveCVOutboxEventRepository;
+import org.yaroslaavl.cvservice.database.repository.ReactiveCVRepository;
+import org.yaroslaavl.cvservice.dto.CVContentDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryPageDto;
+import org.yaroslaavl.cvservice.exception.*;
+import org.yaroslaavl.cvservice.feignClient.user.ReactiveUserClient;
+import org.yaroslaavl.cvservice.mapper.CVMapper;
+import org.yaroslaavl.cvservice.service.MinioCVService;
+import org.yaroslaavl.cvservice.service.ReactiveMinioCVService;
+import org.yaroslaavl.cvservice.storage.StorageCodecChain;
+import org.yaroslaavl.cvservice.validation.CVUploadValidator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveMinioCVServiceImpl implements ReactiveMinioCVService {
+
+    @Value("${cv.max_elements}")
+    private Integer maxElements;
+
+    @Value("${cv.max-file-size:10485760}")
+    private Integer maxFileSize;
+
+    @Value("${cv.summaries.max-page-size:500}")
+    private Integer maxPageSize;
+
+    @Value("${cv.summaries.settle-time:PT5M}")
+    private Duration summariesSettleTime;
+
+    @Value("${minio.bucket-name}")
+    private String bucket;
+
+    @Value("${minio.url}")
+    private String minioUrl;
+
+    @Value("${bucket.folder}")
+    private String folder;
+
+    @Value("${cv.content.base-url:/api/v1/cv/}")
+    private String contentBaseUrl;
+
+    private final MinioAsyncClient minioAsyncClient;
+    private final CVMapper CVMapper;
+    private final ReactiveCVRepository CVRepository;
+    private final CVRepository summaryRepository;
+    private final ReactiveCVOutboxEventRepository outboxEventRepository;
+    private final ReactiveUserClient userClient;
+    private final CacheManager cacheManager;
+    private final TransactionalOperator transactionalOperator;
+    private final StorageCodecChain storageCodecChain;
+    private final Map<String, Mono<?>> pendingLoads = new ConcurrentHashMap<>();
+
+    private static final String SUB = "sub";
+    private static final String EXTENSION = ".pdf";
+    /**
+     * Same sentinel as in {@link MinioCVServiceImpl}, the presign cache is shared between the stacks.
+     */
+    private static final String CONTENT_PROXY = "";
+
+    /**
+     * Non-blocking variant of {@link MinioCVServiceImpl#upload}. The request body is aggregated from
+     * its {@code DataBuffer}s up to {@code cv.max-file-size}, validated off the event loop and
+     * written to MinIO through the async client.
+     *
+     * @param cv     the uploaded PDF part.
+     * @param isMain whether the CV is the main one.
+     * @throws CVUploadException if an unexpected error occurs during the CV upload process.
+     */
+    @Override
+    public Mono<Void> upload(FilePart cv, boolean isMain) {
+        return getAuthenticatedUserSub()
+                .flatMap(userId -> checkUserAccountStatus(userId)
+                        .then(readAndValidate(cv))
+                        .flatMap(content -> {
+                            if (cv.filename().length() >= 100) {
+                                return Mono.error(new CVUploadException("File name is too long"));
+                            }
+
+                            return CVRepository.findAllWithLockByUserId(userId)
+                                    .then(uploadMinioCv(content, isMain, userId))
+                                    .flatMap(cvLink -> CVRepository.save(ReactiveUserCV.builder()
+                                            .isMain(isMain)
+                                            .fileName(cv.filename().replace(EXTENSION, ""))
+                                            .userId(userId)
+                                            .filePath(cvLink)
+                                            .uploadedAt(LocalDateTime.now())
+                                            .build()))
+                                    .flatMap(saved -> record(CVEventType.CV_CREATED, saved).thenReturn(saved))
+                                    .as(transactionalOperator::transactional)
+                                    .flatMap(saved -> evict(CacheConfig.PRESIGN_CACHE, objectName(saved)))
+                                    .onErrorMap(e -> !(e instanceof CVUploadException), e -> {
+                                        log.error("Unexpected error during cv upload for user", e);
+                                        return new CVUploadException("Unexpected error during cv upload");
+                                    });
+                        }))
+                .then();
+    }
+
+    /**
+     * Removes the CV associated with the authenticated user, see {@link MinioCVServiceImpl#remove}.
+     *
+     * @param isMain Flag indicating whether the CV to be removed is the main CV
+     *               for the authenticated user.
+     * @throws EntityNotFoundException If the CV is not found.
+     * @throws UserHasNoPermissionException If the authenticated user is not
+     *                                       permitted to delete the CV.
+     */
+    @Override
+    public Mono<Void> remove(boolean isMain) {
+        return getAuthenticatedUserSub()
+                .flatMap(userId -> checkUserAccountStatus(userId)
+                        .then(CVRepository.findAllWithLockByUserId(userId)
+                                .then(CVRepository.findByIsMainAndUserId(isMain, userId))
+                                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("CV not found")))
+                                .flatMap(userCV -> {
+                                    if (!Objects.equals(userCV.getUserId(), userId)) {
+                                        return Mono.error(new UserHasNoPermissionException("User has no permission to delete this cv"));
+                                    }
+
+                                    return getMinioCV(userId, isMain)
+                                            .flatMap(minioCV -> removeObject(minioCV).thenReturn(minioCV))
+                                            .doOnNext(minioCV -> log.info("Removed CV from MinIO: {}", minioCV))
+                                            .switchIfEmpty(Mono.fromRunnable(() -> log.warn("CV file not found in MinIO for user {}", userId)))
+                                            .then(CVRepository.delete(userCV))
+                                            .then(record(CVEventType.CV_DELETED, userCV))
+                                            .doOnSuccess(v -> log.info("Deleted CV record from DB for user {} (isMain={})", userId, isMain))
+                                            .thenReturn(userCV);
+                                })
+                                .as(transactionalOperator::transactional)
+                                .flatMap(userCV -> evict(CacheConfig.CV_CACHE, userCV.getId())
+                                        .then(evict(CacheConfig.PRESIGN_CACHE, objectName(userCV))))));
+    }
+
+    /**
+     * Makes the given CV the authenticated user's main CV, see {@link MinioCVServiceImpl#promote}.
+     * The user's rows are locked and both rows are updated in one R2DBC transaction, and the files are swapped
+     * with server-side copies. The copies are reverted if the transaction fails and the swap object is only
+     * removed once it has committed.
+     *
+     * @param cvId The UUID of the CV to be promoted.
+     * @throws EntityNotFoundException If the CV is not found.
+     * @throws UserHasNoPermissionException If the CV does not belong to the authenticated user.
+     * @throws FileStorageException If the files cannot be copied in storage.
+     */
+    @Override
+    public Mono<Void> promote(UUID cvId) {
+        return getAuthenticatedUserSub()
+                .flatMap(userId -> checkUserAccountStatus(userId)
+                        .then(Mono.defer(() -> {
+                            String formattedFolder = MessageFormat.format(folder, userId);
+                            String mainObject = formattedFolder + "main" + EXTENSION;
+                            String notMainObject = formattedFolder + "notMain" + EXTENSION;
+                            AtomicReference<ObjectSwap> swap = new AtomicReference<>();
+
+                            return CVRepository.findAllWithLockByUserId(userId)
+                                    .collectList()
+                                    .flatMap(userCvs -> {
+                                        ReactiveUserCV promoted = userCvs.stream()
+                                                .filter(userCV -> Objects.equals(userCV.getId(), cvId))
+                                                .findFirst()
+                                                .orElse(null);
+
+                                        if (promoted == null) {
+                                            return CVRepository.existsById(cvId)
+                                                    .flatMap(exists -> Mono.<List<UUID>>error(exists
+                                                            ? new UserHasNoPermissionException("User has no permission to promote this cv")
+                                                            : new EntityNotFoundException("CV not found")));
+                                        }
+
+                                        if (Boolean.TRUE.equals(promoted.getIsMain())) {
+                                            log.info("CV {} is already the main CV of user {}", cvId, userId);
+                                            return Mono.empty();
+                                        }
+
+                                        Optional<ReactiveUserCV> demoted = userCvs.stream()
+                                                .filter(userCV -> Boolean.TRUE.equals(userCV.getIsMain()))
+                                                .findFirst();
+
+                                        Mono<Void> rows = demoted
+                                                .map(current -> {
+                                                    current.setIsMain(false);
+                                                    current.setFilePath(minioUrl + bucket + "/" + notMainObject);
+                                                    return CVRepository.save(current)
+                                                            .flatMap(saved -> record(CVEventType.CV_UPDATED, saved));
+                                                })
+                                                .orElse(Mono.empty())
+                                                .then(Mono.defer(() -> {
+                                                    promoted.setIsMain(true);
+                                                    promoted.setFilePath(minioUrl + bucket + "/" + mainObject);
+                                                    return CVRepository.save(promoted)
+                                                            .flatMap(saved -> record(CVEventType.CV_UPDATED, saved));
+                                                }));
+
+                                        swap.set(new ObjectSwap(mainObject, notMainObject,
+                                                demoted.isPresent() ? formattedFolder + MinioCVService.SWAP_PREFIX + UUID.randomUUID() + EXTENSION : null));
+
+                                        return rows.then(swap.get().apply())
+                                                .thenReturn(Stream.concat(Stream.of(promoted), demoted.stream())
+                                                        .map(ReactiveUserCV::getId)
+                                                        .toList());
+                                    })
+                                    .as(transactionalOperator::transactional)
+                                    .onErrorResume(e -> Mono.justOrEmpty(swap.get())
+                                            .flatMap(ObjectSwap::revert)
+                                            .then(Mono.<List<UUID>>error(e)))
+                                    .flatMap(changedIds -> swap.get().commit()
+                                            .thenMany(Flux.fromIterable(changedIds))
+                                            .concatMap(id -> evict(CacheConfig.CV_CACHE, id))
+                                            .then(evict(CacheConfig.PRESIGN_CACHE, mainObject))
+                                            .then(evict(CacheConfig.PRESIGN_CACHE, notMainObject))
+                                            .doOnSuccess(v -> log.info("Promoted CV {} to main for user {}", cvId, userId)));
+                        })));
+    }
+
+    /**
+     * Retrieves the CV file URL for a specified candidate, see {@link MinioCVServiceImpl#getCvForCandidate}.
+     *
+     * @param cvId The UUID of the CV to be retrieved.
+     * @param isMain A boolean flag indicating if the main CV should be retrieved.
+     * @return A presigned URL to access the requested CV file, or the URL of the content endpoint
+     *         if the stored object is encrypted.
+     * @throws EntityNotFoundException If the specified CV is not found in the repository.
+     * @throws UserHasNoPermissionException If the authenticated user does not have permission to access the CV.
+     */
+    @Override
+    public Mono<String> getCvForCandidate(UUID cvId, boolean isMain) {
+        return getCandidateCv(cvId, isMain)
+                .flatMap(userCV -> downloadUrl(objectName(userCV), contentBaseUrl + cvId + "/candidate/content?isMain=" + isMain));
+    }
+
+    /**
+     * Retrieves a CV for a recruiter by its unique identifier.
+     *
+     * @param cvId the unique identifier of the CV to be retrieved.
+     * @return a presigned URL for accessing the CV, or the URL of the content endpoint if the stored object is encrypted.
+     * @throws EntityNotFoundException if the CV with the specified identifier is not found.
+     */
+    @Override
+    public Mono<String> getCvForRecruiter(UUID cvId) {
+        return findCv(cvId)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("CV not found")))
+                .flatMap(userCV -> downloadUrl(objectName(userCV), contentBaseUrl + cvId + "/recruiter/content"));
+    }
+
+    /**
+     * Streams the decoded content of the candidate's CV, see {@link MinioCVServiceImpl#getCvContentForCandidate}.
+     *
+     * @param cvId The UUID of the CV to be retrieved.
+     * @param isMain A boolean flag indicating if the main CV should be retrieved.
+     * @return the file name and the decoded PDF stream; the caller must close the stream.
+     */
+    @Override
+    public Mono<CVContentDto> getCvContentForCandidate(UUID cvId, boolean isMain) {
+        return getCandidateCv(cvId, isMain)
+                .flatMap(userCV -> getObject(objectName(userCV))
+                        .map(content -> new CVContentDto(userCV.getFileName(), content)));
+    }
+
+    /**
+     * Streams the decoded content of a CV for a recruiter.
+     *
+     * @param cvId the unique identifier of the CV to be retrieved.
+     * @return the file name and the decoded PDF stream; the caller must close the stream.
+     * @throws EntityNotFoundException if the CV with the specified identifier is not found.
+     */
+    @Override
+    public Mono<CVContentDto> getCvContentForRecruiter(UUID cvId) {
+        return findCv(cvId)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("CV not found")))
+                .flatMap(userCV -> getObject(objectName(userCV))
+                        .map(content -> new CVContentDto(userCV.getFileName(), content)));
+    }
+
+    /**
+     * Reads only the cached row, see {@code getCandidateCv} in {@link MinioCVServiceImpl}.
+     */
+    private Mono<ReactiveUserCV> getCandidateCv(UUID cvId, boolean isMain) {
+        return findCv(cvId)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("CV not found")))
+                .flatMap(userCV -> getAuthenticatedUserSub()
+                        .flatMap(userId -> checkUserAccountStatus(userId)
+                                .then(Mono.<ReactiveUserCV>defer(() -> {
+                                    if (!Objects.equals(userCV.getUserId(), userId)) {
+                                        return Mono.error(new UserHasNoPermissionException("User has no permission to response this cv"));
+                                    }
+                                    if (!Objects.equals(userCV.getIsMain(), isMain)) {
+                                        return Mono.error(new EntityNotFoundException("CV not found"));
+                                    }
+
+                                    return Mono.just(userCV);
+                                }))));
+    }
+
+    private String objectName(ReactiveUserCV userCV) {
+        return userCV.getFilePath().substring((minioUrl + bucket + "/").length());
+    }
+
+    /**
+     * Retrieves all CV summaries for the authenticated candidate.
+     *
+     * @return CVSummaryDto objects representing the summaries of all CVs associated with the authenticated user
+     */
+    @Override
+    public Flux<CVSummaryDto> findAllCandidateCvs() {
+        return getAuthenticatedUserSub()
+                .flatMapMany(CVRepository::findAllByUserId)
+                .map(CVMapper::toSummaryDto);
+    }
+
+    /**
+     * Returns a page of CV summaries across all users for internal services, see {@link MinioCVServiceImpl#findCvSummaries}.
+     * The keyset query is built with the JPA criteria API, so it runs on a bounded elastic thread.
+     *
+     * @param filter optional user ids, main flag and uploadedAt range [from, to).
+     * @param cursor opaque cursor from a previous page, or {@code null} to start from the beginning.
+     * @param size   requested page size, capped at {@code cv.summaries.max-page-size}.
+     * @return the page, the cursor to continue from and whether more rows are already available.
+     * @throws InvalidCursorException if the cursor cannot be decoded.
+     */
+    @Override
+    public Mono<CVSummaryPageDto> findCvSummaries(CVSummaryFilterDto filter, String cursor, int size) {
+        return Mono.fromCallable(() -> MinioCVServiceImpl.findSummaryPage(summaryRepository, filter, cursor, size,
+                        maxPageSize, summariesSettleTime))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<byte[]> readAndValidate(FilePart cv) {
+        MediaType mediaType = cv.headers().getContentType();
+        String contentType = mediaType != null ? mediaType.toString() : null;
+
+        return DataBufferUtils.join(cv.content(), maxFileSize)
+                .onErrorMap(DataBufferLimitException.class, e -> new PDFSizeException("PDF file is too large"))
+                .map(dataBuffer -> {
+                    byte[] content = new byte[dataBuffer.readableByteCount()];
+                    dataBuffer.read(content);
+                    DataBufferUtils.release(dataBuffer);
+                    return content;
+                })
+                .publishOn(Schedulers.boundedElastic())
+                .map(content -> {
+                    try {
+                        CVUploadValidator.validate(cv.filename(), contentType, new ByteArrayInputStream(content));
+                        return content;
+                    } catch (IOException e) {
+                        throw new NotReadableException("The file with name: " + cv.name() + " cannot be read");
+                    }
+                });
+    }
+
+    private Mono<String> getMinioCV(String userId, boolean isMain) {
+        String formattedFolder = MessageFormat.format(folder, userId);
+        return objectExist(formattedFolder, isMain);
+    }
+
+    private Mono<String> uploadMinioCv(byte[] content, boolean isMain, String userId) {
+        return isMaxElementsReached(userId)
+                .flatMap(reached -> reached
+                        ? Mono.error(new OutOfQuantityException("Max elements reached"))
+                        : minio(() -> minioAsyncClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())))
+                .flatMap(isPresent -> isPresent
+                        ? Mono.empty()
+                        : minio(() -> minioAsyncClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build())))
+                .then(storeCvInMinio(content, isMain, userId));
+    }
+
+    private Mono<String> storeCvInMinio(byte[] content, boolean isMain, String userId) {
+        String formattedFolder = MessageFormat.format(folder, userId);
+        String objectName = formattedFolder + (isMain ? "main" : "notMain") + EXTENSION;
+
+        return objectExist(formattedFolder, isMain)
+                .flatMap(this::removeObject)
+                .then(encode(content))
+                .flatMap(encoded -> {
+                    PutObjectArgs.Builder args = PutObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectName)
+                            .stream(new ByteArrayInputStream(encoded), encoded.length, -1)
+                            .contentType(MediaType.APPLICATION_PDF_VALUE);
+                    if (!storageCodecChain.isEmpty()) {
+                        args.userMetadata(Map.of(StorageCodecChain.METADATA_KEY, storageCodecChain.names()));
+                    }
+
+                    return minio(() -> minioAsyncClient.putObject(args.build()));
+                })
+                .thenReturn(minioUrl + bucket + "/" + objectName);
+    }
+
+    /**
+     * Reactive counterpart of the {@code ObjectSwap} in {@link MinioCVServiceImpl}: {@link #apply()} runs inside the
+     * transaction, {@link #commit()} after it has committed and {@link #revert()} after it has failed.
+     */
+    private final class ObjectSwap {
+
+        private final String mainObject;
+        private final String notMainObject;
+        private final String swapObject;
+        private final AtomicInteger copies = new AtomicInteger();
+
+        private ObjectSwap(String mainObject, String notMainObject, String swapObject) {
+            this.mainObject = mainObject;
+            this.notMainObject = notMainObject;
+            this.swapObject = swapObject;
+        }
+
+        private Mono<Void> apply() {
+            if (swapObject == null) {
+                return copy(notMainObject, mainObject);
+            }
+
+            return copy(mainObject, swapObject)
+                    .then(copy(notMainObject, mainObject))
+                    .then(copy(swapObject, notMainObject));
+        }
+
+        private Mono<Void> copy(String source, String target) {
+            return copyObject(source, target).doOnSuccess(v -> copies.incrementAndGet());
+        }
+
+        private Mono<Void> commit() {
+            String objectName = swapObject == null ? notMainObject : swapObject;
+            return removeObject(objectName)
+                    .onErrorResume(e -> {
+                        log.warn("Failed to remove {} after promotion", objectName, e);
+                        return Mono.empty();
+                    });
+        }
+
+        private Mono<Void> revert() {
+            int done = copies.get();
+            if (done == 0) {
+                return Mono.empty();
+            }
+            if (swapObject == null) {
+                return removeObject(mainObject).onErrorResume(this::revertFailed);
+            }
+
+            return (done == 3 ? copyObject(mainObject, notMainObject) : Mono.<Void>empty())
+                    .then(done >= 2 ? copyObject(swapObject, mainObject) : Mono.empty())
+                    .then(removeObject(swapObject))
+                    .doOnSuccess(v -> log.info("Reverted the file swap of {} after rollback", mainObject))
+                    .onErrorResume(this::revertFailed);
+        }
+
+        private Mono<Void> revertFailed(Throwable e) {
+            log.error("Failed to revert the file swap of {}, the original main CV is kept in {}", mainObject, swapObject, e);
+            return Mono.empty();
+        }
+    }
+
+    private Mono<Void> copyObject(String source, String target) {
+        return minio(() -> minioAsyncClient.copyObject(CopyObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(target)
+                        .source(CopySource.builder()
+                                .bucket(bucket)
+                                .object(source)
+                                .build())
+                        .build()))
+                .onErrorMap(e -> {
+                    log.warn("Failed to copy object {} to {}", source, target, e);
+                    return new FileStorageException("Failed to copy");
+                })
+                .then();
+    }
+
+    private Mono<byte[]> encode(byte[] content) {
+        if (storageCodecChain.isEmpty()) {
+            return Mono.just(content);
+        }
+
+        return Mono.fromCallable(() -> {
+                    try (InputStream encoded = storageCodecChain.encode(new ByteArrayInputStream(content))) {
+                        return encoded.readAllBytes();
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<InputStream> getObject(String objectName) {
+        return minio(() -> minioAsyncClient.getObject(GetObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(objectName)
+                        .build()))
+                .onErrorMap(e -> missingOrFailed(e, "Failed to read"))
+                .publishOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    try {
+                        return storageCodecChain.decode(response, response.headers().get(StorageCodecChain.HEADER));
+                    } catch (IOException | RuntimeException e) {
+                        try {
+                            response.close();
+                        } catch (IOException closeException) {
+                            e.addSuppressed(closeException);
+                        }
+                        throw new FileStorageException("Failed to decode " + objectName);
+                    }
+                });
+    }
+
+    private RuntimeException missingOrFailed(Throwable e, String message) {
+        if (e instanceof ErrorResponseException response && "NoSuchKey".equals(response.errorResponse().code())) {
+            return new EntityNotFoundException("CV not found");
+        }
+        log.warn("Storage request failed", e);
+        return new FileStorageException(message);
+    }
+
+    private Mono<Void> removeObject(String file) {
+        return minio(() -> minioAsyncClient.removeObject(RemoveObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(file)
+                        .build()))
+                .onErrorMap(e -> {
+                    log.warn("Failed to remove object from storage", e);
+                    return new FileStorageException("Failed to remove");
+                });
+    }
+
+    private Mono<String> objectExist(String formattedFolder, boolean isMain) {
+        String prefix = formattedFolder + (isMain ? "main" : "notMain");
+
+        return Mono.fromCallable(() -> {
+                    Iterable<Result<Item>> results =
+                            minioAsyncClient.listObjects(ListObjectsArgs.builder().bucket(bucket).prefix(prefix).build());
+                    for (Result<Item> result : results) {
+                        Item item = result.get();
+                        if (item.objectName().startsWith(prefix)) {
+                            return item.objectName();
+                        }
+                    }
+
+                    return null;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Boolean> isMaxElementsReached(String userId) {
+        return CVRepository.countByUserId(userId)
+                .doOnNext(elements -> log.info("Elements: {}", elements))
+                .map(elements -> maxElements == elements.longValue());
+    }
+
+    private Mono<String> getAuthenticatedUserSub() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(authentication -> ((JwtAuthenticationToken) authentication).getTokenAttributes().get(SUB).toString())
+                .switchIfEmpty(Mono.error(() -> new UserHasNoPermissionException("Authentication is not JwtAuthenticationToken or it has no sub")));
+    }
+
+    /**
+     * Only positive answers are cached, as in {@link MinioCVServiceImpl}.
+     */
+    private Mono<Void> checkUserAccountStatus(String userId) {
+        return cached(CacheConfig.APPROVAL_CACHE, userId, Boolean.class,
+                        () -> userClient.isApproved(userId).filter(Boolean::booleanValue))
+                .switchIfEmpty(Mono.error(() -> new CVUploadException("User is not approved or not exists")))
+                .then();
+    }
+
+    /**
+     * See {@link MinioCVServiceImpl}: encrypted objects are served through the content endpoint.
+     * Shares the presign cache entries of the servlet stack.
+     */
+    private Mono<String> downloadUrl(String minioCV, String contentUrl) {
+        return cached(CacheConfig.PRESIGN_CACHE, minioCV, String.class, () -> generatePresignedUrl(minioCV))
+                .map(presignedUrl -> CONTENT_PROXY.equals(presignedUrl) ? contentUrl : presignedUrl);
+    }
+
+    private Mono<String> generatePresignedUrl(String minioCV) {
+        return minio(() -> minioAsyncClient.statObject(StatObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(minioCV)
+                        .build()))
+                .onErrorMap(e -> missingOrFailed(e, "Failed to read"))
+                .map(response -> storageCodecChain.isTransparent(response.headers().get(StorageCodecChain.HEADER)))
+                .flatMap(transparent -> !transparent
+                        ? Mono.just(CONTENT_PROXY)
+                        : Mono.fromCallable(() -> minioAsyncClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                                        .bucket(bucket)
+                                        .method(Method.GET)
+                                        .object(minioCV)
+                                        .expiry(30, TimeUnit.MINUTES)
+                                        .build()))
+                                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Reactive counterpart of {@link org.yaroslaavl.cvservice.service.CVOutboxService#record}: has to run inside
+     * the transactional operator that changes the CV, so the event commits if and only if the change does.
+     */
+    private Mono<Void> record(CVEventType eventType, ReactiveUserCV userCV) {
+        return outboxEventRepository.save(ReactiveCVOutboxEvent.builder()
+                        .eventId(UUID.randomUUID())
+                        .eventType(eventType)
+                        .cvId(userCV.getId())
+                        .userId(userCV.getUserId())
+                        .isMain(userCV.getIsMain())
+                        .occurredAt(LocalDateTime.now())
+                        .build())
+                .then();
+    }
+
+    /**
+     * CV rows are cached as {@link UserCV}, the type the servlet stack caches, so both stacks can share the L2 tier.
+     */
+    private Mono<ReactiveUserCV> findCv(UUID cvId) {
+        return cached(CacheConfig.CV_CACHE, cvId, UserCV.class, () -> CVRepository.findById(cvId).map(CVMapper::toUserCV))
+                .map(CVMapper::toReactiveUserCV);
+    }
+
+    /**
+     * Reads through the two-level cache. Cache access runs on boundedElastic because L2 may be Redis.
+     * Concurrent misses for the same key on this node share one load, mirroring the coalescing of
+     * {@link Cache#get(Object, java.util.concurrent.Callable)}; empty results are not cached.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> cached(String cacheName, Object key, Class<T> type, Supplier<Mono<T>> loader) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        String loadKey = cacheName + ":" + key;
+
+        return Mono.fromCallable(() -> cache.get(key, type))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.defer(() -> (Mono<T>) pendingLoads.computeIfAbsent(loadKey, k -> loader.get()
+                        .flatMap(value -> Mono.fromRunnable(() -> cache.put(key, value))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .thenReturn(value))
+                        .doFinally(signal -> pendingLoads.remove(k))
+                        .cache())));
+    }
+
+    private Mono<Void> evict(String cacheName, Object key) {
+        return Mono.<Void>fromRunnable(() -> Objects.requireNonNull(cacheManager.getCache(cacheName)).evict(key))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static <T> Mono<T> minio(MinioCall<T> call) {
+        return Mono.defer(() -> {
+            try {
+                return Mono.fromFuture(call.execute());
+            } catch (Exception e) {
+                return Mono.error(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface MinioCall<T> {
+        CompletableFuture<T> execute() throws Exception;
+    }
+}
@@ -0,0 +1,135 @@
+package org.yaroslaavl.cvservice.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client-side AES-256-GCM encryption. The stored object is the random 12-byte IV followed by the
+ * ciphertext and the authentication tag; a tampered object fails to decode.
+ * New objects are tagged {@code aes-gcm:<key id>}. Keys are rotated by moving the current key to
+ * {@code cv.storage.codec.encryption.previous-keys} ({@code id:base64} entries) and configuring a new
+ * key and key id; objects tagged without a key id are decoded with {@code legacy-key-id}.
+ * Always registered, so encrypted objects stay readable after {@code cv.storage.codec.encryption.enabled}
+ * is switched off and an AOT-processed build does not depend on the key being present at build time.
+ * Without a key it refuses to start when enabled and fails on every encode or decode otherwise.
+ */
+@Order(2)
+@Component
+public class AesGcmStorageCodec implements StorageCodec {
+
+    public static final String NAME = "aes-gcm";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final String KEY_ID_SEPARATOR = ":";
+
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final String keyId;
+    private final String legacyKeyId;
+    private final boolean enabled;
+    private final SecureRandom random = new SecureRandom();
+
+    public AesGcmStorageCodec(@Value("${cv.storage.codec.encryption.key:}") String base64Key,
+                              @Value("${cv.storage.codec.encryption.key-id:k1}") String keyId,
+                              @Value("${cv.storage.codec.encryption.previous-keys:}") List<String> previousKeys,
+                              @Value("${cv.storage.codec.encryption.legacy-key-id:${cv.storage.codec.encryption.key-id:k1}}") String legacyKeyId,
+                              @Value("${cv.storage.codec.encryption.enabled:false}") boolean enabled) {
+        if (keyId.isBlank() || keyId.contains(KEY_ID_SEPARATOR) || keyId.contains(",")) {
+            throw new IllegalArgumentException("cv.storage.codec.encryption.key-id must be non-empty and contain neither ':' nor ','");
+        }
+
+        if (base64Key.isBlank()) {
+            if (enabled) {
+                throw new IllegalArgumentException("cv.storage.codec.encryption.enabled requires cv.storage.codec.encryption.key");
+            }
+        } else {
+            keys.put(keyId, key(base64Key));
+        }
+
+        for (String entry : previousKeys) {
+            int separator = entry.indexOf(KEY_ID_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("cv.storage.codec.encryption.previous-keys entries must be <key id>:<base64 key>");
+            }
+            keys.putIfAbsent(entry.substring(0, separator).trim(), key(entry.substring(separator + 1).trim()));
+        }
+
+        this.keyId = keyId;
+        this.legacyKeyId = legacyKeyId;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String tag() {
+        return NAME + KEY_ID_SEPARATOR + keyId;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public InputStream encode(InputStream content) throws IOException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+
+        return new SequenceInputStream(
+                new ByteArrayInputStream(iv),
+                new CipherInputStream(content, cipher(Cipher.ENCRYPT_MODE, keyId, iv)));
+    }
+
+    @Override
+    public InputStream decode(InputStream content, String argument) throws IOException {
+        byte[] iv = content.readNBytes(IV_LENGTH);
+        if (iv.length != IV_LENGTH) {
+            throw new IOException("Encrypted object is truncated");
+        }
+
+        return new CipherInputStream(content, cipher(Cipher.DECRYPT_MODE, argument == null ? legacyKeyId : argument, iv));
+    }
+
+    private Cipher cipher(int mode, String keyId, byte[] iv) throws IOException {
+        SecretKeySpec key = keys.get(keyId);
+        if (key == null) {
+            throw new IOException("No encryption key configured for key id " + keyId);
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to initialize " + TRANSFORMATION, e);
+        }
+    }
+
+    private static SecretKeySpec key(String base64Key) {
+        byte[] keyBytes = Base64.getDecoder().decode(base64Key);
+        if (keyBytes.length != 32) {
+            throw new IllegalArgumentException("cv.storage.codec.encryption keys must be base64 encoded 256-bit keys");
+        }
+        return new SecretKeySpec(keyBytes, "AES");
+    }
+}
@@ -0,0 +1,109 @@
+package org.yaroslaavl.cvservice.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Flate-compresses every PDF stream that is stored without a filter (XMP metadata excluded, as PDF/A
+ * requires it to stay readable). The result is still a regular PDF, so decoding is a no-op and presigned
+ * URLs keep working. Encrypted and signed documents are stored unchanged, as are documents that would
+ * not get smaller.
+ */
+@Slf4j
+@Order(1)
+@Component
+public class PdfStreamCompressionCodec implements StorageCodec {
+
+    public static final String NAME = "pdf-flate";
+
+    private static final int MIN_STREAM_LENGTH = 64;
+
+    private final boolean enabled;
+
+    public PdfStreamCompressionCodec(@Value("${cv.storage.codec.compression.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public InputStream encode(InputStream content) throws IOException {
+        byte[] original = content.readAllBytes();
+
+        try (PDDocument document = PDDocument.load(original)) {
+            if (document.isEncrypted() || !document.getSignatureDictionaries().isEmpty()) {
+                return new ByteArrayInputStream(original);
+            }
+
+            int compressed = 0;
+            for (COSObject object : document.getDocument().getObjects()) {
+                COSBase base = object.getObject();
+                if (base instanceof COSStream stream && compress(stream)) {
+                    compressed++;
+                }
+            }
+
+            if (compressed == 0) {
+                return new ByteArrayInputStream(original);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(original.length);
+            document.save(out);
+            if (out.size() >= original.length) {
+                return new ByteArrayInputStream(original);
+            }
+
+            log.debug("Compressed {} PDF streams: {} -> {} bytes", compressed, original.length, out.size());
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+    }
+
+    @Override
+    public InputStream decode(InputStream content, String argument) {
+        return content;
+    }
+
+    @Override
+    public boolean isTransparent() {
+        return true;
+    }
+
+    private boolean compress(COSStream stream) throws IOException {
+        if (stream.getFilters() != null
+                || stream.getLength() < MIN_STREAM_LENGTH
+                || COSName.METADATA.equals(stream.getCOSName(COSName.TYPE))) {
+            return false;
+        }
+
+        byte[] raw;
+        try (InputStream in = stream.createRawInputStream()) {
+            raw = in.readAllBytes();
+        }
+
+        try (OutputStream out = stream.createOutputStream(COSName.FLATE_DECODE)) {
+            out.write(raw);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package org.yaroslaavl.cvservice.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A reversible transformation applied to CV content on its way to and from object storage.
+ * The names of the applied codecs are stored with the object, so objects written before a codec
+ * was enabled (or after it was disabled) are still decoded correctly.
+ */
+public interface StorageCodec {
+
+    String name();
+
+    /**
+     * @return the value recorded on new objects: the name, optionally followed by {@code :} and an argument
+     *         needed to decode them later (e.g. the id of the encryption key).
+     */
+    default String tag() {
+        return name();
+    }
+
+    /**
+     * @return whether new uploads are encoded with this codec; disabled codecs still decode existing objects.
+     */
+    boolean isEnabled();
+
+    InputStream encode(InputStream content) throws IOException;
+
+    /**
+     * @param argument the argument recorded after the name, {@code null} if the object has none.
+     */
+    InputStream decode(InputStream content, String argument) throws IOException;
+
+    /**
+     * @return whether an encoded object is still a regular PDF that can be handed out as stored,
+     *         e.g. through a presigned URL.
+     */
+    default boolean isTransparent() {
+        return false;
+    }
+}
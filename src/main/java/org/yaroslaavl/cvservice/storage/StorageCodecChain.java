@@ -0,0 +1,106 @@
+package org.yaroslaavl.cvservice.storage;
+
+import org.springframework.stereotype.Component;
+import org.yaroslaavl.cvservice.exception.FileStorageException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the enabled {@link StorageCodec}s in order on upload and reverses the codecs recorded
+ * on the object on download.
+ */
+@Component
+public class StorageCodecChain {
+
+    /**
+     * User metadata key (stored as {@code x-amz-meta-codec}) holding the comma separated codec tags,
+     * each a codec name optionally followed by {@code :} and an argument, e.g. {@code pdf-flate,aes-gcm:k1}.
+     */
+    public static final String METADATA_KEY = "codec";
+    public static final String HEADER = "x-amz-meta-" + METADATA_KEY;
+
+    private static final String SEPARATOR = ",";
+    private static final String ARGUMENT_SEPARATOR = ":";
+
+    private final List<StorageCodec> codecs;
+    private final Map<String, StorageCodec> codecsByName;
+
+    public StorageCodecChain(List<StorageCodec> codecs) {
+        this.codecs = codecs.stream().filter(StorageCodec::isEnabled).toList();
+        this.codecsByName = codecs.stream().collect(Collectors.toMap(StorageCodec::name, Function.identity()));
+    }
+
+    public boolean isEmpty() {
+        return codecs.isEmpty();
+    }
+
+    /**
+     * @return the comma separated codec tags to store with the object, {@code null} if none are enabled.
+     */
+    public String names() {
+        return codecs.isEmpty() ? null : codecs.stream().map(StorageCodec::tag).collect(Collectors.joining(SEPARATOR));
+    }
+
+    /**
+     * @param names codec tags recorded on the object; {@code null} or blank for objects stored as uploaded.
+     * @return whether the stored object is a regular PDF that can be served without decoding.
+     */
+    public boolean isTransparent(String names) {
+        if (names == null || names.isBlank()) {
+            return true;
+        }
+
+        return Arrays.stream(names.split(SEPARATOR))
+                .map(tag -> codecsByName.get(codecName(tag)))
+                .allMatch(codec -> codec != null && codec.isTransparent());
+    }
+
+    public InputStream encode(InputStream content) throws IOException {
+        InputStream encoded = content;
+        for (StorageCodec codec : codecs) {
+            encoded = codec.encode(encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * @param names codec tags recorded on the object; {@code null} or blank for objects stored as uploaded.
+     */
+    public InputStream decode(InputStream content, String names) throws IOException {
+        if (names == null || names.isBlank()) {
+            return content;
+        }
+
+        List<String> applied = new ArrayList<>(Arrays.asList(names.split(SEPARATOR)));
+        Collections.reverse(applied);
+
+        InputStream decoded = content;
+        for (String tag : applied) {
+            String name = codecName(tag);
+            StorageCodec codec = codecsByName.get(name);
+            if (codec == null) {
+                throw new FileStorageException("Storage codec " + name + " is not available");
+            }
+            decoded = codec.decode(decoded, codecArgument(tag));
+        }
+        return decoded;
+    }
+
+    private static String codecName(String tag) {
+        int separator = tag.indexOf(ARGUMENT_SEPARATOR);
+        return (separator < 0 ? tag : tag.substring(0, separator)).trim();
+    }
+
+    private static String codecArgument(String tag) {
+        int separator = tag.indexOf(ARGUMENT_SEPARATOR);
+        return separator < 0 ? null : tag.substring(separator + 1).trim();
+    }
+}
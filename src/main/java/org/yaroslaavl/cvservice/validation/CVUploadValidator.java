@@ -10,6 +10,7 @@ import org.yaroslaavl.cvservice.exception.NotReadableException;
 import org.yaroslaavl.cvservice.exception.PDFSizeException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
 
 public class CVUploadValidator implements ConstraintValidator<CVUpload, MultipartFile> {
@@ -19,22 +20,33 @@ public class CVUploadValidator implements ConstraintValidator<CVUpload, Multipar
 
     @Override
     public boolean isValid(MultipartFile pdf, ConstraintValidatorContext constraintValidatorContext) {
-        if (!Objects.requireNonNull(pdf.getOriginalFilename()).toLowerCase().endsWith(END)) {
+        try {
+            validate(pdf.getOriginalFilename(), pdf.getContentType(), pdf.getInputStream());
+            return true;
+        } catch (IOException e) {
+            throw new NotReadableException("The file with name: " + pdf.getName() + " cannot be read");
+        }
+    }
+
+    /**
+     * Checks the file name, content type and page count of an uploaded CV.
+     * Shared by the servlet constraint and the reactive upload path.
+     *
+     * @throws IOException if the content cannot be parsed as a PDF document.
+     */
+    public static void validate(String originalFilename, String contentType, InputStream content) throws IOException {
+        if (!Objects.requireNonNull(originalFilename).toLowerCase().endsWith(END)) {
             throw new NotPDFException("The file is not pdf");
         }
 
-        if (!TYPE.equalsIgnoreCase(pdf.getContentType())) {
+        if (!TYPE.equalsIgnoreCase(contentType)) {
             throw new InvalidTypeException("Invalid type");
         }
 
-        try (PDDocument document = PDDocument.load(pdf.getInputStream())) {
+        try (PDDocument document = PDDocument.load(content)) {
             if (document.getNumberOfPages() == 0 || document.getNumberOfPages() > 5) {
                 throw new PDFSizeException("PDF is empty or too large. PDF size is " + document.getNumberOfPages());
             }
-
-            return true;
-        } catch (IOException e) {
-            throw new NotReadableException("The file with name: " + pdf.getName() + " cannot be read");
         }
     }
 }
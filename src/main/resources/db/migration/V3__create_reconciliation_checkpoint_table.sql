@@ -0,0 +1,5 @@
+CREATE TABLE reconciliation_checkpoint (
+                    id VARCHAR(100) PRIMARY KEY,
+                    last_key VARCHAR(500),
+                    updated_at TIMESTAMP NOT NULL DEFAULT now()
+);
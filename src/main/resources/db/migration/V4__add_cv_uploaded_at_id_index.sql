@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_cv_uploaded_at_id ON cv (uploaded_at, id);
@@ -0,0 +1,16 @@
+CREATE SEQUENCE cv_outbox_position_seq;
+
+CREATE TABLE cv_outbox_event (
+                    id BIGSERIAL PRIMARY KEY,
+                    event_id UUID NOT NULL UNIQUE,
+                    event_type VARCHAR(32) NOT NULL,
+                    cv_id UUID NOT NULL,
+                    user_id VARCHAR(250) NOT NULL,
+                    is_main BOOL NOT NULL,
+                    occurred_at TIMESTAMP NOT NULL DEFAULT now(),
+                    position BIGINT UNIQUE,
+                    published_at TIMESTAMP
+);
+
+CREATE INDEX idx_cv_outbox_event_unpublished ON cv_outbox_event (id) WHERE position IS NULL;
+CREATE INDEX idx_cv_outbox_event_published_at ON cv_outbox_event (published_at);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_cv_file_path_c_id ON cv (file_path COLLATE "C", id);
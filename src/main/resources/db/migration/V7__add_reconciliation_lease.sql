@@ -0,0 +1,3 @@
+ALTER TABLE reconciliation_checkpoint
+    ADD COLUMN locked_by VARCHAR(100),
+    ADD COLUMN locked_until TIMESTAMP;
@@ -0,0 +1,154 @@
+package org.yaroslaavl.cvservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private static final String CACHE = "cv";
+
+    private final CacheManager shared = new ConcurrentMapCacheManager(CACHE);
+    private final CacheInvalidationBus bus = new LocalCacheInvalidationBus();
+    private final SimpleMeterRegistry nodeARegistry = new SimpleMeterRegistry();
+
+    private Cache nodeA;
+    private Cache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node(shared, nodeARegistry).getCache(CACHE);
+        nodeB = node(shared, new SimpleMeterRegistry()).getCache(CACHE);
+    }
+
+    @Test
+    void valueWrittenOnOneNodeIsReadFromSharedTierOnAnother() {
+        nodeA.put("k", "v1");
+
+        assertThat(nodeB.get("k", String.class)).isEqualTo("v1");
+    }
+
+    @Test
+    void evictionOnOneNodeDropsTheLocalEntryOfAnother() {
+        nodeA.put("k", "v1");
+        assertThat(nodeB.get("k", String.class)).isEqualTo("v1");
+
+        nodeA.evict("k");
+
+        assertThat(nodeB.get("k")).isNull();
+    }
+
+    @Test
+    void writeOnOneNodeReplacesTheStaleLocalEntryOfAnother() {
+        nodeA.put("k", "v1");
+        assertThat(nodeB.get("k", String.class)).isEqualTo("v1");
+
+        nodeA.put("k", "v2");
+
+        assertThat(nodeB.get("k", String.class)).isEqualTo("v2");
+    }
+
+    @Test
+    void clearOnOneNodeDropsAllLocalEntriesOfAnother() {
+        nodeA.put("k1", "v1");
+        nodeA.put("k2", "v2");
+        nodeB.get("k1");
+        nodeB.get("k2");
+
+        nodeA.clear();
+
+        assertThat(nodeB.get("k1")).isNull();
+        assertThat(nodeB.get("k2")).isNull();
+    }
+
+    @Test
+    void secondReadOnTheSameNodeIsServedFromTheLocalTier() {
+        nodeA.put("k", "v1");
+
+        nodeA.get("k");
+
+        assertThat(nodeARegistry.get("cv.cache.requests")
+                .tags("cache", CACHE, "tier", "l1", "result", "hit")
+                .counter()
+                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void concurrentMissesOnOneNodeCallTheLoaderOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(() -> {
+                    start.await();
+                    return nodeA.get("k", () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(50);
+                        return "loaded";
+                    });
+                });
+            }
+            start.countDown();
+
+            for (Future<?> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void nullLoaderResultIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(nodeA.get("k", () -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        nodeA.get("k", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void sharedTierFailureIsTreatedAsMiss() {
+        Cache broken = mock(Cache.class);
+        when(broken.get(any())).thenThrow(new IllegalStateException("redis down"));
+        CacheManager brokenShared = mock(CacheManager.class);
+        when(brokenShared.getCache(CACHE)).thenReturn(broken);
+        Cache cache = node(brokenShared, new SimpleMeterRegistry()).getCache(CACHE);
+
+        assertThat(cache.get("k", () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get("k", String.class)).isEqualTo("loaded");
+    }
+
+    private TwoLevelCacheManager node(CacheManager sharedCacheManager, SimpleMeterRegistry registry) {
+        return new TwoLevelCacheManager(sharedCacheManager, bus, registry,
+                Map.of(CACHE, Duration.ofMinutes(30)), Duration.ofMinutes(1), 100);
+    }
+}
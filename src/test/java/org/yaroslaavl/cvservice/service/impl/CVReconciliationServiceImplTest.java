@@ -0,0 +1,264 @@
+package org.yaroslaavl.cvservice.service.impl;
+
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.yaroslaavl.cvservice.config.CacheConfig;
+import org.yaroslaavl.cvservice.database.entity.CVEventType;
+import org.yaroslaavl.cvservice.database.entity.ReconciliationCheckpoint;
+import org.yaroslaavl.cvservice.database.entity.UserCV;
+import org.yaroslaavl.cvservice.database.repository.CVRepository;
+import org.yaroslaavl.cvservice.database.repository.ReconciliationCheckpointRepository;
+import org.yaroslaavl.cvservice.dto.ReconciliationReportDto;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CVReconciliationServiceImplTest {
+
+    private static final String PATH_PREFIX = "http://minio:9000/cv-bucket/";
+    private static final LocalDateTime OLD = LocalDateTime.now().minusDays(1);
+
+    private final MinioClient minioClient = mock(MinioClient.class);
+    private final CVRepository cvRepository = mock(CVRepository.class);
+    private final ReconciliationCheckpointRepository checkpointRepository = mock(ReconciliationCheckpointRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final CVOutboxService outboxService = mock(CVOutboxService.class);
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.CV_CACHE, CacheConfig.PRESIGN_CACHE);
+
+    private final List<String> objects = new ArrayList<>();
+    private final List<UserCV> rows = new ArrayList<>();
+    private final ReconciliationCheckpoint checkpoint = ReconciliationCheckpoint.builder().id("cv-minio").build();
+
+    private CVReconciliationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CVReconciliationServiceImpl(minioClient, cvRepository, checkpointRepository, cacheManager, transactionTemplate, outboxService);
+        ReflectionTestUtils.setField(service, "bucket", "cv-bucket");
+        ReflectionTestUtils.setField(service, "minioUrl", "http://minio:9000/");
+        ReflectionTestUtils.setField(service, "folder", "cv/{0}/");
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxObjectsPerRun", 100L);
+        ReflectionTestUtils.setField(service, "gracePeriod", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "lease", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(service, "maxOrphanRatio", 0.5);
+        ReflectionTestUtils.setField(service, "guardMinObjects", 100L);
+
+        when(checkpointRepository.acquireLease(eq("cv-minio"), anyString(), anyLong())).thenReturn(1);
+        when(checkpointRepository.findById("cv-minio")).thenAnswer(invocation -> Optional.of(checkpoint));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenAnswer(invocation -> {
+            String startAfter = invocation.<ListObjectsArgs>getArgument(0).startAfter();
+            return objects.stream()
+                    .sorted()
+                    .filter(name -> startAfter == null || name.compareTo(startAfter) > 0)
+                    .map(name -> new Result<>(item(name)))
+                    .toList();
+        });
+
+        when(cvRepository.findPageByFilePathPrefix(anyString(), anyString(), anyString(), any(UUID.class), anyInt()))
+                .thenAnswer(invocation -> {
+                    String prefix = invocation.getArgument(0);
+                    String prefixEnd = invocation.getArgument(1);
+                    String afterPath = invocation.getArgument(2);
+                    UUID afterId = invocation.getArgument(3);
+                    int limit = invocation.getArgument(4);
+                    return rows.stream()
+                            .sorted(Comparator.comparing(UserCV::getFilePath).thenComparing(UserCV::getId))
+                            .filter(row -> row.getFilePath().compareTo(prefix) >= 0 && row.getFilePath().compareTo(prefixEnd) < 0)
+                            .filter(row -> {
+                                int cmp = row.getFilePath().compareTo(afterPath);
+                                return cmp > 0 || (cmp == 0 && compareUnsigned(row.getId(), afterId) > 0);
+                            })
+                            .limit(limit)
+                            .toList();
+                });
+    }
+
+    @Test
+    void reportsOrphanObjectsAndDanglingRowsInDryRun() {
+        objects.addAll(List.of("cv/u1/main.pdf", "cv/u2/main.pdf", "cv/u3/notMain.pdf"));
+        rows.add(row(1, "cv/u1/main.pdf"));
+        rows.add(row(2, "cv/u2/notMain.pdf"));
+        rows.add(row(3, "cv/u3/notMain.pdf"));
+
+        ReconciliationReportDto report = service.reconcile(true).orElseThrow();
+
+        assertThat(report.completed()).isTrue();
+        assertThat(report.lastKey()).isNull();
+        assertThat(report.scannedObjects()).isEqualTo(3);
+        assertThat(report.scannedRows()).isEqualTo(3);
+        assertThat(report.orphanObjects()).isEqualTo(1);
+        assertThat(report.danglingRows()).isEqualTo(1);
+        assertThat(report.repaired()).isZero();
+        verify(cvRepository, never()).delete(any());
+        verify(outboxService, never()).record(any(), any());
+        verify(checkpointRepository).releaseLease(eq("cv-minio"), anyString());
+    }
+
+    @Test
+    void resumesFromCheckpointWithoutRecountingMatchedRows() {
+        objects.addAll(List.of("cv/u1/main.pdf", "cv/u2/main.pdf", "cv/u3/main.pdf"));
+        rows.add(row(1, "cv/u1/main.pdf"));
+        rows.add(row(2, "cv/u2/main.pdf"));
+        rows.add(row(3, "cv/u4/main.pdf"));
+        ReflectionTestUtils.setField(service, "maxObjectsPerRun", 2L);
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReconciliationReportDto first = service.reconcile(true).orElseThrow();
+
+        assertThat(first.completed()).isFalse();
+        assertThat(first.lastKey()).isEqualTo("cv/u2/main.pdf");
+        assertThat(checkpoint.getLastKey()).isEqualTo("cv/u2/main.pdf");
+        assertThat(first.danglingRows()).isZero();
+
+        ReconciliationReportDto second = service.reconcile(true).orElseThrow();
+
+        assertThat(second.completed()).isTrue();
+        assertThat(second.scannedObjects()).isEqualTo(1);
+        assertThat(second.scannedRows()).isEqualTo(1);
+        assertThat(second.orphanObjects()).isEqualTo(1);
+        assertThat(second.danglingRows()).isEqualTo(1);
+        assertThat(checkpoint.getLastKey()).isNull();
+    }
+
+    @Test
+    void skipsRunWhenAnotherNodeHoldsTheLease() {
+        when(checkpointRepository.acquireLease(eq("cv-minio"), anyString(), anyLong())).thenReturn(0);
+
+        assertThat(service.reconcile(false)).isEmpty();
+        verify(minioClient, never()).listObjects(any(ListObjectsArgs.class));
+    }
+
+    @Test
+    void deletesDanglingRowOnlyWhenObjectIsStillMissing() throws Exception {
+        UserCV missing = row(1, "cv/u1/main.pdf");
+        UserCV reappeared = row(2, "cv/u2/main.pdf");
+        rows.addAll(List.of(missing, reappeared));
+        when(cvRepository.findWithLockById(missing.getId())).thenReturn(Optional.of(missing));
+        when(cvRepository.findWithLockById(reappeared.getId())).thenReturn(Optional.of(reappeared));
+
+        ErrorResponse noSuchKey = mock(ErrorResponse.class);
+        when(noSuchKey.code()).thenReturn("NoSuchKey");
+        ErrorResponseException notFound = mock(ErrorResponseException.class);
+        when(notFound.errorResponse()).thenReturn(noSuchKey);
+        when(minioClient.statObject(argThat((StatObjectArgs args) -> args != null && "cv/u1/main.pdf".equals(args.object()))))
+                .thenThrow(notFound);
+
+        ReconciliationReportDto report = service.reconcile(false).orElseThrow();
+
+        assertThat(report.danglingRows()).isEqualTo(2);
+        assertThat(report.repaired()).isEqualTo(1);
+        verify(cvRepository).delete(missing);
+        verify(cvRepository, never()).delete(reappeared);
+        verify(outboxService).record(CVEventType.CV_DELETED, missing);
+        verify(outboxService, never()).record(any(), eq(reappeared));
+    }
+
+    @Test
+    void keepsSwapObjectsLeftByPromotion() throws Exception {
+        objects.addAll(List.of("cv/u1/main.pdf", "cv/u1/swap-0f4c.pdf", "cv/u2/main.pdf"));
+        rows.add(row(1, "cv/u1/main.pdf"));
+
+        ReconciliationReportDto report = service.reconcile(false).orElseThrow();
+
+        assertThat(report.orphanObjects()).isEqualTo(2);
+        assertThat(report.repaired()).isEqualTo(1);
+        verify(minioClient).removeObject(argThat((RemoveObjectArgs args) -> args != null && "cv/u2/main.pdf".equals(args.object())));
+        verify(minioClient, never()).removeObject(argThat((RemoveObjectArgs args) -> args != null && args.object().contains("swap-")));
+    }
+
+    @Test
+    void doesNotRepairWhenNoObjectMatchesARow() throws Exception {
+        objects.addAll(List.of("cv/u1/main.pdf", "cv/u2/main.pdf", "cv/u3/main.pdf"));
+        ReflectionTestUtils.setField(service, "minioUrl", "http://minio.internal:9000/");
+        rows.add(row(1, "cv/u1/main.pdf"));
+        rows.add(row(2, "cv/u2/main.pdf"));
+
+        ReconciliationReportDto report = service.reconcile(false).orElseThrow();
+
+        assertThat(report.dryRun()).isTrue();
+        assertThat(report.orphanObjects()).isEqualTo(3);
+        assertThat(report.repaired()).isZero();
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void stopsRepairingWhenTooManyObjectsAreOrphans() throws Exception {
+        ReflectionTestUtils.setField(service, "guardMinObjects", 4L);
+        objects.addAll(List.of("cv/u1/main.pdf", "cv/u2/main.pdf", "cv/u3/main.pdf", "cv/u4/main.pdf", "cv/u5/main.pdf"));
+        rows.add(row(1, "cv/u1/main.pdf"));
+
+        ReconciliationReportDto report = service.reconcile(false).orElseThrow();
+
+        assertThat(report.dryRun()).isTrue();
+        assertThat(report.scannedObjects()).isEqualTo(5);
+        assertThat(report.orphanObjects()).isEqualTo(4);
+        assertThat(report.repaired()).isZero();
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void prefixEndIsTheNextStringAfterEveryKeyWithThePrefix() {
+        assertThat(CVReconciliationServiceImpl.prefixEnd("http://minio/cv/")).isEqualTo("http://minio/cv0");
+        assertThat("http://minio/cv/zzz").isLessThan(CVReconciliationServiceImpl.prefixEnd("http://minio/cv/"));
+    }
+
+    private static UserCV row(long id, String objectName) {
+        return UserCV.builder()
+                .id(new UUID(0L, id))
+                .userId("user-" + id)
+                .filePath(PATH_PREFIX + objectName)
+                .isMain(objectName.endsWith("/main.pdf"))
+                .fileName("cv-" + id)
+                .uploadedAt(OLD)
+                .build();
+    }
+
+    private static Item item(String name) {
+        Item item = mock(Item.class);
+        when(item.objectName()).thenReturn(name);
+        when(item.isDir()).thenReturn(false);
+        when(item.lastModified()).thenReturn(ZonedDateTime.now().minusDays(1));
+        return item;
+    }
+
+    private static int compareUnsigned(UUID left, UUID right) {
+        int cmp = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,113 @@
+package org.yaroslaavl.cvservice.service.impl;
+
+import io.minio.MinioClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.yaroslaavl.cvservice.database.repository.CVRepository;
+import org.yaroslaavl.cvservice.dto.CVSummaryDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryFilterDto;
+import org.yaroslaavl.cvservice.dto.CVSummaryPageDto;
+import org.yaroslaavl.cvservice.exception.InvalidCursorException;
+import org.yaroslaavl.cvservice.feignClient.user.UserFeignClient;
+import org.yaroslaavl.cvservice.mapper.CVMapper;
+import org.yaroslaavl.cvservice.service.CVOutboxService;
+import org.yaroslaavl.cvservice.storage.StorageCodecChain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MinioCVServiceImplTest {
+
+    private static final LocalDateTime UPLOADED_AT = LocalDateTime.of(2026, 1, 10, 12, 0, 0, 123_000_000);
+    private static final CVSummaryFilterDto NO_FILTER = new CVSummaryFilterDto(null, null, null, null);
+
+    private final CVRepository cvRepository = mock(CVRepository.class);
+
+    private MinioCVServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MinioCVServiceImpl(mock(MinioClient.class), mock(CVMapper.class), cvRepository,
+                mock(UserFeignClient.class), new ConcurrentMapCacheManager(), new StorageCodecChain(List.of()),
+                mock(CVOutboxService.class));
+        ReflectionTestUtils.setField(service, "maxPageSize", 500);
+        ReflectionTestUtils.setField(service, "summariesSettleTime", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void returnsCursorOfLastItemAndResumesAfterIt() {
+        List<CVSummaryDto> rows = List.of(summary(1, UPLOADED_AT), summary(2, UPLOADED_AT), summary(3, UPLOADED_AT.plusSeconds(1)));
+        when(cvRepository.findSummaryPage(any(), isNull(), isNull(), eq(3))).thenReturn(rows);
+        when(cvRepository.findSummaryPage(any(), eq(UPLOADED_AT), eq(new UUID(0L, 2L)), eq(3))).thenReturn(rows.subList(2, 3));
+
+        CVSummaryPageDto first = service.findCvSummaries(NO_FILTER, null, 2);
+
+        assertThat(first.items()).extracting(CVSummaryDto::cvId).containsExactly(new UUID(0L, 1L), new UUID(0L, 2L));
+        assertThat(first.hasMore()).isTrue();
+
+        CVSummaryPageDto second = service.findCvSummaries(NO_FILTER, first.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(CVSummaryDto::cvId).containsExactly(new UUID(0L, 3L));
+        assertThat(second.hasMore()).isFalse();
+        assertThat(second.nextCursor()).isNotEqualTo(first.nextCursor());
+    }
+
+    @Test
+    void keepsCursorWhenNoNewRows() {
+        String cursor = cursor(UPLOADED_AT + "|" + new UUID(0L, 7L));
+        when(cvRepository.findSummaryPage(any(), eq(UPLOADED_AT), eq(new UUID(0L, 7L)), anyInt())).thenReturn(List.of());
+
+        CVSummaryPageDto page = service.findCvSummaries(NO_FILTER, cursor, 10);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> service.findCvSummaries(NO_FILTER, "%%%", 10)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> service.findCvSummaries(NO_FILTER, cursor("no-separator"), 10)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> service.findCvSummaries(NO_FILTER, cursor("yesterday|" + UUID.randomUUID()), 10)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> service.findCvSummaries(NO_FILTER, cursor(UPLOADED_AT + "|not-a-uuid"), 10)).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void onlyListsRowsOlderThanTheSettleTime() {
+        ArgumentCaptor<CVSummaryFilterDto> filter = ArgumentCaptor.forClass(CVSummaryFilterDto.class);
+        LocalDateTime before = LocalDateTime.now().minusMinutes(5);
+
+        service.findCvSummaries(NO_FILTER, null, 10);
+        service.findCvSummaries(new CVSummaryFilterDto(null, null, null, UPLOADED_AT), null, 10);
+
+        verify(cvRepository, times(2)).findSummaryPage(filter.capture(), isNull(), isNull(), eq(11));
+        assertThat(filter.getAllValues().get(0).uploadedTo()).isBetween(before, LocalDateTime.now().minusMinutes(5));
+        assertThat(filter.getAllValues().get(1).uploadedTo()).isEqualTo(UPLOADED_AT);
+    }
+
+    private static CVSummaryDto summary(long id, LocalDateTime uploadedAt) {
+        return new CVSummaryDto(new UUID(0L, id), "user-" + id, "cv-" + id, true, uploadedAt);
+    }
+
+    private static String cursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
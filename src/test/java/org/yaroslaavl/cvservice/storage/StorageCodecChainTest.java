@@ -0,0 +1,86 @@
+package org.yaroslaavl.cvservice.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StorageCodecChainTest {
+
+    private static final String OLD_KEY = key((byte) 1);
+    private static final String NEW_KEY = key((byte) 2);
+    private static final byte[] CONTENT = "%PDF-1.7 cv".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void recordsKeyIdAndDecodesAfterRotation() throws IOException {
+        StorageCodecChain before = chain(new AesGcmStorageCodec(OLD_KEY, "k1", List.of(), "k1", true));
+        String tags = before.names();
+        byte[] stored = encode(before);
+
+        StorageCodecChain after = chain(new AesGcmStorageCodec(NEW_KEY, "k2", List.of("k1:" + OLD_KEY), "k1", true));
+
+        assertThat(tags).isEqualTo("aes-gcm:k1");
+        assertThat(after.names()).isEqualTo("aes-gcm:k2");
+        assertThat(decode(after, stored, tags)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void decodesObjectsWithoutKeyIdWithLegacyKey() throws IOException {
+        byte[] stored = encode(chain(new AesGcmStorageCodec(OLD_KEY, "k1", List.of(), "k1", true)));
+
+        StorageCodecChain rotated = chain(new AesGcmStorageCodec(NEW_KEY, "k2", List.of("k1:" + OLD_KEY), "k1", true));
+
+        assertThat(decode(rotated, stored, "aes-gcm")).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void failsForUnknownKeyId() throws IOException {
+        byte[] stored = encode(chain(new AesGcmStorageCodec(OLD_KEY, "k1", List.of(), "k1", true)));
+
+        StorageCodecChain other = chain(new AesGcmStorageCodec(NEW_KEY, "k2", List.of(), "k2", true));
+
+        assertThatThrownBy(() -> decode(other, stored, "pdf-flate,aes-gcm:k1"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("k1");
+    }
+
+    @Test
+    void onlyObjectsWithTransparentCodecsAreTransparent() {
+        StorageCodecChain chain = chain(new AesGcmStorageCodec("", "k1", List.of(), "k1", false));
+
+        assertThat(chain.isTransparent(null)).isTrue();
+        assertThat(chain.isTransparent("pdf-flate")).isTrue();
+        assertThat(chain.isTransparent("pdf-flate,aes-gcm:k1")).isFalse();
+        assertThat(chain.isTransparent("unknown")).isFalse();
+    }
+
+    private static StorageCodecChain chain(AesGcmStorageCodec aesGcm) {
+        return new StorageCodecChain(List.of(new PdfStreamCompressionCodec(false), aesGcm));
+    }
+
+    private static byte[] encode(StorageCodecChain chain) throws IOException {
+        try (InputStream encoded = chain.encode(new ByteArrayInputStream(CONTENT))) {
+            return encoded.readAllBytes();
+        }
+    }
+
+    private static byte[] decode(StorageCodecChain chain, byte[] stored, String tags) throws IOException {
+        try (InputStream decoded = chain.decode(new ByteArrayInputStream(stored), tags)) {
+            return decoded.readAllBytes();
+        }
+    }
+
+    private static String key(byte value) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, value);
+        return Base64.getEncoder().encodeToString(key);
+    }
+}